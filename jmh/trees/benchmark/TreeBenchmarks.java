@@ -0,0 +1,119 @@
+package trees.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class TreeBenchmarks {
+    
+    /*
+     * JMH wrapper for every scenario registered in TreeBenchmark (all tree
+     * classes, on the random, sorted and skewed distributions). The tree
+     * classes live in the unnamed package, which a named package cannot
+     * import, so each scenario is looked up through
+     * TreeBenchmark.scenario() by reflection, once per trial, and then
+     * driven through JDK functional interfaces.
+     * 
+     * As in TreeBenchmark, every invocation times one pass over the keys
+     * or probes on freshly built state, so inserts and deletes always start
+     * from the same tree. The score is microseconds per pass; a pass is
+     * size operations for inserts and min(size, 10000) for lookups and
+     * deletes. Run with e.g.
+     * 
+     *   gradle jmh --args='-p scenario=TreeSearch.contains -p size=1000000'
+     * 
+     * Sizes up to 100M work with a bigger heap (-jvmArgsAppend -Xmx16g).
+     * Recursive operations on large sorted inputs overflow the stack;
+     * JMH reports those parameter combinations as errors and moves on.
+     */
+    @Param({
+        "BasicTree.insert", "BasicTree.insert(AVL)", "BasicTree.search", "BasicTree.search(AVL)",
+        "BasicTree.inOrderTraversal", "BasicTree.preOrderTraversal", "BasicTree.postOrderTraversal",
+        "TreeAddDelete.add", "TreeAddDelete.delete", "TreeAddDelete.delete(lazy)", "TreeAddDelete.addAll",
+        "TreeAddDelete.deleteAll", "TreeAddDelete.contains",
+        "TreeSearch.binarySearchRecursive", "TreeSearch.binarySearchIterative", "TreeSearch.contains",
+        "TreeSearch.contains(metrics)", "TreeSearch.contains(bloom)", "TreeSearch.contains(zipf)",
+        "TreeSearch.contains(zipf,AVL)", "TreeSearch.contains(zipf,splay)",
+        "TreeSearch.contains(nearly sorted,AVL)", "TreeSearch.cursor(nearly sorted,AVL)",
+        "TreeSearch.containsAll", "TreeSearch.findMinimum", "TreeSearch.findMaximum",
+        "TreeSearch.rangeSearch", "TreeSearch.rangeIterator", "TreeSearch.parallelRangeSearch(all)",
+        "TreeSearch.countInRange", "TreeSearch.findClosest", "TreeSearch.floor", "TreeSearch.nearest(k=10)",
+        "TreeSearch.countInRange(AVL)", "TreeSearch.rangeSum(AVL)", "TreeSearch.rank", "TreeSearch.select",
+        "TreeSort.treeSort", "TreeSort.reverseTreeSort",
+        "TreeMerge.mergeTreesMethod1", "TreeMerge.mergeTreesMethod2", "TreeMerge.mergeTreesMethod3",
+        "TreeRecursion.calculateHeight", "TreeRecursion.calculateSum", "TreeRecursion.countNodes",
+        "TreeRecursion.findPathsWithSum", "TreeRecursion.isBalanced", "TreeRecursion.cloneTree",
+        "TreeRecursion.inOrderTraversal", "TreeRecursion.preOrderTraversal", "TreeRecursion.postOrderTraversal",
+        "TreeTraversal.inOrderRecursive", "TreeTraversal.inOrderIterative", "TreeTraversal.preOrderRecursive",
+        "TreeTraversal.preOrderIterative", "TreeTraversal.postOrderRecursive", "TreeTraversal.postOrderIterative",
+        "TreeTraversal.levelOrderTraversal", "TreeTraversal.levelOrderByLevel", "TreeTraversal.depthFirstSearch",
+        "TreeTraversal.verticalOrderTraversal",
+        "ArrayTree.insert", "ArrayTree.search", "FrozenTree.search", "BlockTree.search(scalar)",
+        "BlockTree.search(vector)", "BPlusTree.insert", "BPlusTree.search", "BPlusTree.rangeSearch",
+        "ConcurrentTree.add", "ConcurrentTree.contains", "PersistentTree.add", "PersistentTree.contains"
+    })
+    public String scenario;
+    
+    @Param({"random", "sorted", "skewed"})
+    public String distribution;
+    
+    @Param({"1000", "10000", "100000"})
+    public int size;
+    
+    @Param("42")
+    public long seed;
+    
+    private Supplier<LongSupplier> fresh;
+    private LongSupplier pass;
+    private PrintStream console;
+    
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUpTrial() throws ReflectiveOperationException {
+        fresh = (Supplier<LongSupplier>) Class.forName("TreeBenchmark")
+                .getMethod("scenario", String.class, String.class, int.class, long.class)
+                .invoke(null, scenario, distribution, size, seed);
+        
+        // Discard what the operations print: the string building is still
+        // measured, the console output is not
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+    
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        pass = fresh.get();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        System.setOut(console);
+    }
+    
+    @Benchmark
+    public long run() {
+        return pass.getAsLong();
+    }
+}
@@ -0,0 +1,260 @@
+public class ArrayTree {
+    
+    /**
+     * Index used in place of a null child reference
+     */
+    static final int NIL = -1;
+    
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    // Struct-of-arrays node storage: node i is (keys[i], left[i], right[i])
+    private int[] keys;
+    private int[] left;
+    private int[] right;
+    
+    private int size;
+    private int root;
+    
+    /**
+     * Constructor to initialize an empty tree
+     */
+    public ArrayTree() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Constructor to initialize an empty tree with room for a number of keys
+     * Pre-sizing avoids the copies made while the arena grows
+     * 
+     * @param initialCapacity Number of nodes to allocate up front
+     */
+    public ArrayTree(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.keys = new int[capacity];
+        this.left = new int[capacity];
+        this.right = new int[capacity];
+        this.size = 0;
+        this.root = NIL;
+    }
+    
+    /**
+     * Insert a value into the BST
+     * Same behavior as BasicTree.insert: duplicates are ignored
+     * 
+     * Algorithm:
+     * 1. Walk down from the root comparing against keys[current]
+     * 2. Append the new node at the end of the arena
+     * 3. Store its index in the parent's left[] or right[] slot
+     * 
+     * Time Complexity: O(log n) average, O(n) worst case
+     * Space Complexity: O(1) - iterative, no recursion stack
+     * 
+     * @param data The value to insert
+     */
+    public void insert(int data) {
+        if (root == NIL) {
+            root = newNode(data);
+            return;
+        }
+        
+        int current = root;
+        while (true) {
+            if (data < keys[current]) {
+                if (left[current] == NIL) {
+                    // newNode may grow the arrays, so store the index afterwards
+                    int node = newNode(data);
+                    left[current] = node;
+                    return;
+                }
+                current = left[current];
+            } else if (data > keys[current]) {
+                if (right[current] == NIL) {
+                    int node = newNode(data);
+                    right[current] = node;
+                    return;
+                }
+                current = right[current];
+            } else {
+                // Ignore duplicates
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Allocate the next slot in the arena, doubling the arrays when full
+     */
+    private int newNode(int data) {
+        if (size == keys.length) {
+            int newCapacity = keys.length * 2;
+            keys = java.util.Arrays.copyOf(keys, newCapacity);
+            left = java.util.Arrays.copyOf(left, newCapacity);
+            right = java.util.Arrays.copyOf(right, newCapacity);
+        }
+        keys[size] = data;
+        left[size] = NIL;
+        right[size] = NIL;
+        return size++;
+    }
+    
+    /**
+     * Search for a value in the BST
+     * Time Complexity: O(log n) average, O(n) worst case
+     * 
+     * @param data The value to search for
+     * @return true if found, false otherwise
+     */
+    public boolean search(int data) {
+        int current = root;
+        while (current != NIL) {
+            int key = keys[current];
+            if (key == data) {
+                return true;
+            }
+            current = data < key ? left[current] : right[current];
+        }
+        return false;
+    }
+    
+    /**
+     * In-order traversal: Left -> Root -> Right (produces sorted output)
+     * Time Complexity: O(n)
+     * 
+     * @param node Index of the current node being visited
+     */
+    public void inOrderTraversal(int node) {
+        if (node != NIL) {
+            inOrderTraversal(left[node]);
+            System.out.print(keys[node] + " ");
+            inOrderTraversal(right[node]);
+        }
+    }
+    
+    /**
+     * Pre-order traversal: Root -> Left -> Right
+     * Time Complexity: O(n)
+     */
+    public void preOrderTraversal(int node) {
+        if (node != NIL) {
+            System.out.print(keys[node] + " ");
+            preOrderTraversal(left[node]);
+            preOrderTraversal(right[node]);
+        }
+    }
+    
+    /**
+     * Post-order traversal: Left -> Right -> Root
+     * Time Complexity: O(n)
+     */
+    public void postOrderTraversal(int node) {
+        if (node != NIL) {
+            postOrderTraversal(left[node]);
+            postOrderTraversal(right[node]);
+            System.out.print(keys[node] + " ");
+        }
+    }
+    
+    /**
+     * Get the index of the root node (NIL if empty)
+     */
+    public int getRoot() {
+        return root;
+    }
+    
+    /**
+     * Get the number of keys stored
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Bytes of node storage currently reserved per stored key
+     * Three int slots (12 bytes) per node, plus unused capacity in the arena
+     * 
+     * @return Reserved bytes divided by key count, 0 if empty
+     */
+    public double bytesPerKey() {
+        if (size == 0) {
+            return 0;
+        }
+        long reserved = 3L * Integer.BYTES * keys.length;
+        return (double) reserved / size;
+    }
+    
+    /**
+     * Approximate heap in use, after asking the JVM to collect garbage
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+    
+    /**
+     * Main method to demonstrate the array-backed tree
+     */
+    public static void main(String[] args) {
+        System.out.println("=== Binary Search Tree - Struct-of-Arrays Storage ===\n");
+        
+        ArrayTree tree = new ArrayTree();
+        
+        // Same operations as BasicTree
+        System.out.println("Inserting values: 50, 30, 70, 20, 40, 60, 80");
+        tree.insert(50);
+        tree.insert(30);
+        tree.insert(70);
+        tree.insert(20);
+        tree.insert(40);
+        tree.insert(60);
+        tree.insert(80);
+        
+        System.out.println("\nIn-order Traversal (sorted): ");
+        tree.inOrderTraversal(tree.getRoot());
+        
+        System.out.println("\n\nPre-order Traversal: ");
+        tree.preOrderTraversal(tree.getRoot());
+        
+        System.out.println("\n\nPost-order Traversal: ");
+        tree.postOrderTraversal(tree.getRoot());
+        
+        System.out.println("\n\nSearch Operations:");
+        System.out.println("Search for 40: " + tree.search(40)); // true
+        System.out.println("Search for 25: " + tree.search(25)); // false
+        System.out.println("Search for 70: " + tree.search(70)); // true
+        System.out.println("Search for 100: " + tree.search(100)); // false
+        
+        // Memory per key: array arena vs one TreeNode object per key
+        int n = 1_000_000;
+        int[] values = new int[n];
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextInt();
+        }
+        
+        System.out.println("\nMemory per key (" + n + " random keys):");
+        long before = usedMemory();
+        ArrayTree arrayTree = new ArrayTree(n);
+        for (int value : values) {
+            arrayTree.insert(value);
+        }
+        long arrayBytes = usedMemory() - before;
+        
+        before = usedMemory();
+        BasicTree objectTree = new BasicTree();
+        for (int value : values) {
+            objectTree.insert(value);
+        }
+        long objectBytes = usedMemory() - before;
+        
+        System.out.printf("ArrayTree: %.1f bytes/key (reserved: %.1f)%n",
+                (double) arrayBytes / arrayTree.size(), arrayTree.bytesPerKey());
+        System.out.printf("BasicTree: %.1f bytes/key%n", (double) objectBytes / arrayTree.size());
+        
+        // Keep both trees reachable until after the measurement
+        System.out.println("Both trees agree on " + values[n / 2] + ": "
+                + (arrayTree.search(values[n / 2]) == objectTree.search(values[n / 2])));
+    }
+}
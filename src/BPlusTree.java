@@ -0,0 +1,320 @@
+public class BPlusTree {
+    
+    /**
+     * Node holding up to `order` sorted keys
+     * 
+     * Leaf:     keys are the stored values; next links to the right sibling
+     * Internal: keys are separators; children[i] holds values < keys[i],
+     *           children[i + 1] holds values >= keys[i]
+     * 
+     * Arrays have one spare slot so a node can overflow briefly before it
+     * is split.
+     */
+    static class Node {
+        final boolean leaf;
+        final int[] keys;
+        final Node[] children;
+        int count;
+        Node next;
+        
+        Node(boolean leaf, int order) {
+            this.leaf = leaf;
+            this.keys = new int[order + 1];
+            this.children = leaf ? null : new Node[order + 2];
+            this.count = 0;
+            this.next = null;
+        }
+    }
+    
+    /**
+     * Default fanout: 64 int keys = 256 bytes = four 64-byte cache lines
+     */
+    public static final int DEFAULT_ORDER = 64;
+    
+    private final int order;
+    private Node root;
+    private int size;
+    
+    // Separator pushed up by the most recent split in insertRecursive
+    private int splitKey;
+    
+    /**
+     * Constructor to initialize an empty tree with the default node size
+     */
+    public BPlusTree() {
+        this(DEFAULT_ORDER);
+    }
+    
+    /**
+     * Constructor to initialize an empty tree with a chosen node size
+     * Use ~16 keys per cache line; larger orders (e.g. 1024 = 4 KB) suit
+     * page-sized nodes
+     * 
+     * @param order Maximum number of keys per node (at least 3)
+     */
+    public BPlusTree(int order) {
+        if (order < 3) {
+            throw new IllegalArgumentException("Order must be at least 3: " + order);
+        }
+        this.order = order;
+        this.root = new Node(true, order);
+        this.size = 0;
+    }
+    
+    /**
+     * Insert a value into the tree
+     * Duplicates are ignored, as in BasicTree
+     * 
+     * Algorithm:
+     * 1. Descend to the leaf that should hold the value
+     * 2. Insert it in sorted position
+     * 3. If the leaf overflows, split it in half and push the first key of
+     *    the new right half into the parent; repeat upward
+     * 4. If the root splits, grow a new root (the tree grows at the top, so
+     *    all leaves stay at the same depth)
+     * 
+     * Time Complexity: O(log n) guaranteed
+     * 
+     * @param data The value to insert
+     */
+    public void insert(int data) {
+        Node sibling = insertRecursive(root, data);
+        if (sibling != null) {
+            Node newRoot = new Node(false, order);
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = sibling;
+            newRoot.count = 1;
+            root = newRoot;
+        }
+    }
+    
+    /**
+     * Helper: insert below node
+     * 
+     * @return New right sibling if node was split (separator in splitKey),
+     *         null otherwise
+     */
+    private Node insertRecursive(Node node, int data) {
+        int pos = java.util.Arrays.binarySearch(node.keys, 0, node.count, data);
+        
+        if (node.leaf) {
+            if (pos >= 0) {
+                // Ignore duplicates
+                return null;
+            }
+            insertAt(node.keys, node.count, -pos - 1, data);
+            node.count++;
+            size++;
+            return node.count > order ? splitLeaf(node) : null;
+        }
+        
+        int childIndex = pos >= 0 ? pos + 1 : -pos - 1;
+        Node sibling = insertRecursive(node.children[childIndex], data);
+        if (sibling == null) {
+            return null;
+        }
+        
+        insertAt(node.keys, node.count, childIndex, splitKey);
+        System.arraycopy(node.children, childIndex + 1, node.children, childIndex + 2, node.count - childIndex);
+        node.children[childIndex + 1] = sibling;
+        node.count++;
+        return node.count > order ? splitInternal(node) : null;
+    }
+    
+    private static void insertAt(int[] keys, int count, int index, int value) {
+        System.arraycopy(keys, index, keys, index + 1, count - index);
+        keys[index] = value;
+    }
+    
+    /**
+     * Move the upper half of a leaf into a new right sibling
+     * The separator is a copy of the sibling's first key
+     */
+    private Node splitLeaf(Node node) {
+        Node right = new Node(true, order);
+        int half = node.count / 2;
+        right.count = node.count - half;
+        System.arraycopy(node.keys, half, right.keys, 0, right.count);
+        node.count = half;
+        
+        right.next = node.next;
+        node.next = right;
+        
+        splitKey = right.keys[0];
+        return right;
+    }
+    
+    /**
+     * Move the upper half of an internal node into a new right sibling
+     * The middle key moves up to the parent instead of being copied
+     */
+    private Node splitInternal(Node node) {
+        Node right = new Node(false, order);
+        int mid = node.count / 2;
+        right.count = node.count - mid - 1;
+        System.arraycopy(node.keys, mid + 1, right.keys, 0, right.count);
+        System.arraycopy(node.children, mid + 1, right.children, 0, right.count + 1);
+        java.util.Arrays.fill(node.children, mid + 1, node.count + 1, null);
+        
+        splitKey = node.keys[mid];
+        node.count = mid;
+        return right;
+    }
+    
+    /**
+     * Helper: descend to the leaf whose key range covers data
+     */
+    private Node findLeaf(int data) {
+        Node node = root;
+        while (!node.leaf) {
+            int pos = java.util.Arrays.binarySearch(node.keys, 0, node.count, data);
+            node = node.children[pos >= 0 ? pos + 1 : -pos - 1];
+        }
+        return node;
+    }
+    
+    /**
+     * Search for a value in the tree
+     * Each level costs one binary search inside a few adjacent cache lines
+     * instead of one cache miss per key compared
+     * 
+     * Time Complexity: O(log n) guaranteed
+     * 
+     * @param data The value to search for
+     * @return true if found, false otherwise
+     */
+    public boolean search(int data) {
+        Node leaf = findLeaf(data);
+        return java.util.Arrays.binarySearch(leaf.keys, 0, leaf.count, data) >= 0;
+    }
+    
+    /**
+     * Range Search
+     * Finds all values within [min, max] by descending once to the leaf
+     * holding min, then following the leaf links
+     * 
+     * Time Complexity: O(log n + k) where k is number of results
+     * 
+     * @param min Minimum value of range (inclusive)
+     * @param max Maximum value of range (inclusive)
+     * @return List of values in range, ascending
+     */
+    public java.util.List<Integer> rangeSearch(int min, int max) {
+        java.util.List<Integer> result = new java.util.ArrayList<>();
+        if (min > max) {
+            return result;
+        }
+        
+        Node leaf = findLeaf(min);
+        int pos = java.util.Arrays.binarySearch(leaf.keys, 0, leaf.count, min);
+        int i = pos >= 0 ? pos : -pos - 1;
+        
+        while (leaf != null) {
+            for (; i < leaf.count; i++) {
+                if (leaf.keys[i] > max) {
+                    return result;
+                }
+                result.add(leaf.keys[i]);
+            }
+            leaf = leaf.next;
+            i = 0;
+        }
+        return result;
+    }
+    
+    /**
+     * In-order traversal (produces sorted output)
+     * Walks the leaf chain instead of recursing through internal nodes
+     * 
+     * Time Complexity: O(n)
+     */
+    public void inOrderTraversal() {
+        Node leaf = root;
+        while (!leaf.leaf) {
+            leaf = leaf.children[0];
+        }
+        for (; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                System.out.print(leaf.keys[i] + " ");
+            }
+        }
+    }
+    
+    /**
+     * Get the number of keys stored
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Number of levels from root to leaves (all leaves share one depth)
+     */
+    public int getHeight() {
+        int height = 1;
+        for (Node node = root; !node.leaf; node = node.children[0]) {
+            height++;
+        }
+        return height;
+    }
+    
+    /**
+     * Main method demonstrating B+ tree operations
+     */
+    public static void main(String[] args) {
+        System.out.println("=== B+ Tree - Wide Fanout Nodes ===\n");
+        
+        BPlusTree tree = new BPlusTree(4);
+        System.out.println("Order 4; inserting values: 50, 30, 70, 20, 40, 60, 80, 10, 25, 35, 65, 75, 85");
+        int[] values = {50, 30, 70, 20, 40, 60, 80, 10, 25, 35, 65, 75, 85};
+        for (int value : values) {
+            tree.insert(value);
+        }
+        
+        System.out.println("\nIn-order Traversal (leaf chain): ");
+        tree.inOrderTraversal();
+        System.out.println("\nHeight: " + tree.getHeight());
+        
+        System.out.println("\nSearch Operations:");
+        System.out.println("Search for 40: " + tree.search(40)); // true
+        System.out.println("Search for 25: " + tree.search(25)); // true
+        System.out.println("Search for 55: " + tree.search(55)); // false
+        System.out.println("Range [20, 60]: " + tree.rangeSearch(20, 60));
+        
+        // Lookup cost against a balanced binary tree
+        int n = 1_000_000;
+        java.util.Random random = new java.util.Random(42);
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt();
+        }
+        
+        BPlusTree wide = new BPlusTree();
+        BasicTree binary = new BasicTree(true);
+        for (int key : keys) {
+            wide.insert(key);
+            binary.insert(key);
+        }
+        System.out.println("\n" + wide.size() + " random keys: B+ height " + wide.getHeight()
+                + ", AVL height " + binary.getHeight());
+        
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            int hits = 0;
+            for (int i = 0; i < n; i++) {
+                if (binary.search(keys[(int) ((long) i * 7919 % n)])) hits++;
+            }
+            long binaryNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                if (wide.search(keys[(int) ((long) i * 7919 % n)])) hits--;
+            }
+            long wideNanos = System.nanoTime() - start;
+            
+            System.out.printf("Round %d: AVL %.1f ns/op, B+ tree %.1f ns/op%s%n", round + 1,
+                    (double) binaryNanos / n, (double) wideNanos / n, hits == 0 ? "" : " MISMATCH");
+        }
+    }
+}
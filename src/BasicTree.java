@@ -7,22 +7,39 @@ public class BasicTree {
         int data;
         TreeNode left;
         TreeNode right;
+        int height; // Only maintained in self-balancing mode (leaf = 1)
         
         // Constructor to create a new node
         TreeNode(int data) {
             this.data = data;
             this.left = null;
             this.right = null;
+            this.height = 1;
         }
     }
     
     private TreeNode root;
+    private final boolean selfBalancing;
     
     /**
      * Constructor to initialize an empty tree
      */
     public BasicTree() {
+        this(false);
+    }
+    
+    /**
+     * Constructor to initialize an empty tree with a chosen insert engine
+     * 
+     * When selfBalancing is true the tree is kept as an AVL tree: after every
+     * insert the heights of the two subtrees of any node differ by at most 1,
+     * so the height stays below 1.44 log2(n) even for sorted input.
+     * 
+     * @param selfBalancing true for AVL inserts, false for a plain BST
+     */
+    public BasicTree(boolean selfBalancing) {
         this.root = null;
+        this.selfBalancing = selfBalancing;
     }
     
     /**
@@ -33,7 +50,11 @@ public class BasicTree {
      * @param data The value to insert
      */
     public void insert(int data) {
-        root = insertRecursive(root, data);
+        if (selfBalancing) {
+            root = insertBalanced(root, data);
+        } else {
+            root = insertRecursive(root, data);
+        }
     }
     
     /**
@@ -56,6 +77,89 @@ public class BasicTree {
         return node;
     }
     
+    /**
+     * Helper method to insert a value and rebalance on the way back up (AVL)
+     * Time Complexity: O(log n) guaranteed
+     * Space Complexity: O(log n) for recursion stack
+     */
+    private TreeNode insertBalanced(TreeNode node, int data) {
+        // Base case: create new node if position is empty
+        if (node == null) {
+            return new TreeNode(data);
+        }
+        
+        if (data < node.data) {
+            node.left = insertBalanced(node.left, data);
+        } else if (data > node.data) {
+            node.right = insertBalanced(node.right, data);
+        } else {
+            // Duplicate: nothing changed below, no rebalancing needed
+            return node;
+        }
+        
+        updateHeight(node);
+        return rebalance(node);
+    }
+    
+    /**
+     * Restore the AVL property at a node whose subtrees differ in height by 2
+     * 
+     * Four cases:
+     * 1. Left-Left   - single right rotation
+     * 2. Left-Right  - left rotation on left child, then right rotation
+     * 3. Right-Right - single left rotation
+     * 4. Right-Left  - right rotation on right child, then left rotation
+     */
+    private TreeNode rebalance(TreeNode node) {
+        int balance = balanceFactor(node);
+        
+        if (balance > 1) {
+            if (balanceFactor(node.left) < 0) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        
+        if (balance < -1) {
+            if (balanceFactor(node.right) > 0) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        
+        return node;
+    }
+    
+    private TreeNode rotateRight(TreeNode node) {
+        TreeNode newRoot = node.left;
+        node.left = newRoot.right;
+        newRoot.right = node;
+        updateHeight(node);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+    
+    private TreeNode rotateLeft(TreeNode node) {
+        TreeNode newRoot = node.right;
+        node.right = newRoot.left;
+        newRoot.left = node;
+        updateHeight(node);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+    
+    private int height(TreeNode node) {
+        return node == null ? 0 : node.height;
+    }
+    
+    private int balanceFactor(TreeNode node) {
+        return height(node.left) - height(node.right);
+    }
+    
+    private void updateHeight(TreeNode node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+    
     /**
      * Search for a value in the BST
      * Time Complexity: O(log n) average, O(n) worst case
@@ -64,29 +168,49 @@ public class BasicTree {
      * @return true if found, false otherwise
      */
     public boolean search(int data) {
-        return searchRecursive(root, data);
+        return searchIterative(root, data);
     }
     
     /**
-     * Helper method to recursively search for a value
+     * Helper method to search for a value below a node
+     * Walks down iteratively so a degenerate (unbalanced) tree cannot
+     * overflow the call stack
      */
-    private boolean searchRecursive(TreeNode node, int data) {
-        // Base case: node is null
-        if (node == null) {
-            return false;
+    private boolean searchIterative(TreeNode node, int data) {
+        while (node != null) {
+            // Found the value
+            if (node.data == data) {
+                return true;
+            }
+            
+            // Continue in left or right subtree based on comparison
+            node = data < node.data ? node.left : node.right;
         }
-        
-        // Found the value
-        if (node.data == data) {
-            return true;
+        return false;
+    }
+    
+    /**
+     * Height of the tree measured in nodes on the longest root-to-leaf path
+     * Time Complexity: O(n)
+     * 
+     * @return 0 for an empty tree
+     */
+    public int getHeight() {
+        int height = 0;
+        java.util.ArrayDeque<TreeNode> level = new java.util.ArrayDeque<>();
+        if (root != null) {
+            level.add(root);
         }
-        
-        // Search in left or right subtree based on comparison
-        if (data < node.data) {
-            return searchRecursive(node.left, data);
-        } else {
-            return searchRecursive(node.right, data);
+        // Level-by-level walk so a degenerate tree does not overflow the stack
+        while (!level.isEmpty()) {
+            height++;
+            for (int i = level.size(); i > 0; i--) {
+                TreeNode node = level.poll();
+                if (node.left != null) level.add(node.left);
+                if (node.right != null) level.add(node.right);
+            }
         }
+        return height;
     }
     
     /**
@@ -127,6 +251,44 @@ public class BasicTree {
         }
     }
     
+    /**
+     * Freeze the current contents into an immutable search snapshot
+     * The snapshot stores the keys in Eytzinger (BFS) array order and is
+     * not affected by later inserts into this tree
+     * 
+     * Time Complexity: O(n)
+     * 
+     * @return Read-only snapshot with the same key set
+     */
+    public FrozenTree freeze() {
+        return new FrozenTree(toSortedArray());
+    }
+    
+    /**
+     * Helper: collect keys in ascending order with an iterative in-order walk
+     */
+    private int[] toSortedArray() {
+        int[] keys = new int[16];
+        int count = 0;
+        java.util.ArrayDeque<TreeNode> stack = new java.util.ArrayDeque<>();
+        TreeNode current = root;
+        
+        while (current != null || !stack.isEmpty()) {
+            while (current != null) {
+                stack.push(current);
+                current = current.left;
+            }
+            current = stack.pop();
+            if (count == keys.length) {
+                keys = java.util.Arrays.copyOf(keys, count * 2);
+            }
+            keys[count++] = current.data;
+            current = current.right;
+        }
+        
+        return java.util.Arrays.copyOf(keys, count);
+    }
+    
     /**
      * Get the root of the tree
      */
@@ -168,5 +330,20 @@ public class BasicTree {
         System.out.println("Search for 25: " + tree.search(25)); // false
         System.out.println("Search for 70: " + tree.search(70)); // true
         System.out.println("Search for 100: " + tree.search(100)); // false
+        
+        // Sorted input: plain BST degenerates, self-balancing mode does not
+        System.out.println("\nSorted ingest of 1..10000:");
+        BasicTree plain = new BasicTree();
+        BasicTree balanced = new BasicTree(true);
+        for (int i = 1; i <= 10000; i++) {
+            balanced.insert(i);
+        }
+        for (int i = 1; i <= 2000; i++) {
+            plain.insert(i); // Recursive insert; kept small to stay within the stack
+        }
+        System.out.println("Plain BST height (2000 keys): " + plain.getHeight());
+        System.out.println("AVL height (10000 keys): " + balanced.getHeight());
+        System.out.println("AVL search for 9999: " + balanced.search(9999)); // true
+        System.out.println("AVL search for 10001: " + balanced.search(10001)); // false
     }
 }
@@ -0,0 +1,304 @@
+public class BlockTree {
+    
+    /*
+     * Hybrid search snapshot: sorted keys are cut into blocks of
+     * blockSize ints (the leaves), and only the largest key of each block
+     * goes into an Eytzinger-ordered index (the upper levels, as in
+     * FrozenTree). A lookup descends the index to the one block that can
+     * hold the key, then scans that block without branches.
+     * 
+     * Block i of the index (1-based, Eytzinger order) is stored at
+     * keys[(i - 1) * blockSize], so no child pointers or block numbers are
+     * kept. The last block is padded with copies of its largest key, so
+     * every block has exactly blockSize entries.
+     * 
+     * The block scan counts keys below the target with no early exit, so
+     * a 16-64 int block (1-4 cache lines) costs the same few instructions
+     * whatever the key. Two implementations:
+     * - VectorBlockScan (src/vector): IntVector compare + trueCount, one
+     *   SIMD register of keys per step. It uses the jdk.incubator.vector
+     *   module, so it is compiled and run with --add-modules:
+     * 
+     *     javac --add-modules jdk.incubator.vector -cp src -d src src/vector/VectorBlockScan.java
+     *     java --add-modules jdk.incubator.vector -cp src BlockTree
+     * 
+     * - SCALAR_SCAN: a compare-and-add loop, used when the module or the
+     *   class is missing (e.g. after a plain javac src/*.java)
+     * 
+     * The choice is made once, when BlockTree is loaded.
+     */
+    
+    /**
+     * Counts the keys below data in keys[start, start + length)
+     */
+    interface BlockScan {
+        int countBelow(int[] keys, int start, int length, int data);
+    }
+    
+    static final BlockScan SCALAR_SCAN = (keys, start, length, data) -> {
+        int below = 0;
+        for (int j = start; j < start + length; j++) {
+            below += keys[j] < data ? 1 : 0;
+        }
+        return below;
+    };
+    
+    // null unless jdk.incubator.vector is in the boot layer and
+    // VectorBlockScan was compiled
+    private static final BlockScan VECTOR_SCAN = loadVectorScan();
+    
+    private static BlockScan loadVectorScan() {
+        if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            return null;
+        }
+        try {
+            return (BlockScan) Class.forName("VectorBlockScan").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Default block: 32 ints = 128 bytes = two 64-byte cache lines
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 32;
+    
+    private final int[] maxima; // Eytzinger index of block maxima, 1-indexed
+    private final int[] keys;   // Blocks in index order
+    private final int blockSize;
+    private final int blocks;
+    private final int size;
+    private final BlockScan scan;
+    
+    /**
+     * Build a snapshot with the default block size
+     * 
+     * @param sortedKeys Keys in strictly ascending order
+     */
+    public BlockTree(int[] sortedKeys) {
+        this(sortedKeys, DEFAULT_BLOCK_SIZE);
+    }
+    
+    /**
+     * Build a snapshot from keys in ascending order without duplicates
+     * Use TreeSearch.toBlockTree() to obtain one from a live tree
+     * 
+     * Time Complexity: O(n)
+     * Space Complexity: O(n)
+     * 
+     * @param sortedKeys Keys in strictly ascending order
+     * @param blockSize Keys per leaf block (16-64 works best)
+     */
+    public BlockTree(int[] sortedKeys, int blockSize) {
+        this(sortedKeys, blockSize, isVectorScanAvailable());
+    }
+    
+    /**
+     * Build a snapshot with an explicit choice of block scan (for
+     * comparing the two)
+     * 
+     * @param sortedKeys Keys in strictly ascending order
+     * @param blockSize Keys per leaf block (16-64 works best)
+     * @param vectorScan true for the Vector API scan, false for the scalar loop
+     * @throws IllegalStateException if vectorScan is requested but unavailable
+     */
+    public BlockTree(int[] sortedKeys, int blockSize, boolean vectorScan) {
+        if (vectorScan && VECTOR_SCAN == null) {
+            throw new IllegalStateException("Vector scan needs VectorBlockScan and --add-modules jdk.incubator.vector");
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be at least 1: " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.scan = vectorScan ? VECTOR_SCAN : SCALAR_SCAN;
+        this.size = sortedKeys.length;
+        this.blocks = (size + blockSize - 1) / blockSize;
+        this.maxima = new int[blocks + 1];
+        this.keys = new int[blocks * blockSize];
+        fill(sortedKeys, new int[] {0}, 1);
+    }
+    
+    /**
+     * Helper: in-order walk of the implicit index, assigning blocks of
+     * sorted keys in ascending order
+     */
+    private void fill(int[] sortedKeys, int[] next, int i) {
+        if (i <= blocks) {
+            fill(sortedKeys, next, 2 * i);
+            
+            int from = next[0]++ * blockSize;
+            int length = Math.min(blockSize, size - from);
+            int start = (i - 1) * blockSize;
+            System.arraycopy(sortedKeys, from, keys, start, length);
+            java.util.Arrays.fill(keys, start + length, start + blockSize, sortedKeys[from + length - 1]);
+            maxima[i] = keys[start + blockSize - 1];
+            
+            fill(sortedKeys, next, 2 * i + 1);
+        }
+    }
+    
+    /**
+     * Search for a value in the snapshot
+     * 
+     * Algorithm:
+     * 1. Branch-free Eytzinger descent over the block maxima to the first
+     *    block whose maximum is >= data (see FrozenTree.search)
+     * 2. Count the keys in that block that are < data (SIMD compares, or a
+     *    fixed-length compare-and-add loop); the count is where data would sit
+     * 3. Compare once at that position
+     * 
+     * Time Complexity: O(log(n / B) + B) for block size B
+     * Space Complexity: O(1)
+     * 
+     * @param data The value to search for
+     * @return true if found, false otherwise
+     */
+    public boolean search(int data) {
+        int[] index = maxima;
+        int n = blocks;
+        int i = 1;
+        while (i <= n) {
+            i = 2 * i + (index[i] < data ? 1 : 0);
+        }
+        i >>>= Integer.numberOfTrailingZeros(~i) + 1;
+        if (i == 0) {
+            return false; // Larger than every key
+        }
+        
+        int start = (i - 1) * blockSize;
+        int below = scan.countBelow(keys, start, blockSize, data);
+        return keys[start + below] == data;
+    }
+    
+    /**
+     * Get the number of keys in the snapshot
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * true if new snapshots use the Vector API block scan by default
+     */
+    public static boolean isVectorScanAvailable() {
+        return VECTOR_SCAN != null;
+    }
+    
+    /**
+     * true if this snapshot scans blocks with the Vector API
+     */
+    public boolean isVectorScan() {
+        return scan != SCALAR_SCAN;
+    }
+    
+    /**
+     * Keys per leaf block
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+    
+    /**
+     * In-order traversal of the blocks (produces sorted output)
+     * Time Complexity: O(n)
+     */
+    public void inOrderTraversal() {
+        inOrderHelper(1, new int[] {0});
+    }
+    
+    private void inOrderHelper(int i, int[] printed) {
+        if (i <= blocks) {
+            inOrderHelper(2 * i, printed);
+            int start = (i - 1) * blockSize;
+            for (int j = start; j < start + blockSize && printed[0] < size; j++) {
+                // Skip padding copies of a block's last key
+                if (j == start || keys[j] != keys[j - 1]) {
+                    System.out.print(keys[j] + " ");
+                    printed[0]++;
+                }
+            }
+            inOrderHelper(2 * i + 1, printed);
+        }
+    }
+    
+    /**
+     * Main method comparing block sizes and block scans with
+     * TreeSearch.binarySearchIterative and FrozenTree
+     */
+    public static void main(String[] args) {
+        System.out.println("=== Block Tree (Index over Sorted Leaf Blocks) ===\n");
+        
+        TreeSearch tree = new TreeSearch(true);
+        tree.setQuiet(true);
+        System.out.println("Inserting values: 50, 30, 70, 20, 40, 60, 80, 10, 25, 35");
+        for (int value : new int[] {50, 30, 70, 20, 40, 60, 80, 10, 25, 35}) {
+            tree.insert(value);
+        }
+        
+        BlockTree small = tree.toBlockTree(4);
+        System.out.println("\nBlock size 4, in-order: ");
+        small.inOrderTraversal();
+        
+        System.out.println("\n\nSearch Operations:");
+        System.out.println("Search for 40: " + small.search(40)); // true
+        System.out.println("Search for 80: " + small.search(80)); // true
+        System.out.println("Search for 55: " + small.search(55)); // false
+        System.out.println("Search for 90: " + small.search(90)); // false
+        
+        // Lookup cost by block size
+        int n = 1_000_000;
+        java.util.Random random = new java.util.Random(42);
+        TreeSearch big = new TreeSearch(true);
+        big.setQuiet(true);
+        for (int i = 0; i < n; i++) {
+            big.insert(random.nextInt());
+        }
+        int[] sorted = big.rangeStream(Integer.MIN_VALUE, Integer.MAX_VALUE).toArray();
+        FrozenTree frozen = new FrozenTree(sorted);
+        java.util.List<BlockTree> blockTrees = new java.util.ArrayList<>();
+        for (int blockSize : new int[] {16, 32, 64}) {
+            blockTrees.add(new BlockTree(sorted, blockSize, false));
+            if (isVectorScanAvailable()) {
+                blockTrees.add(new BlockTree(sorted, blockSize, true));
+            }
+        }
+        System.out.println("\nVector API block scan: " + (isVectorScanAvailable()
+                ? "available" : "not available (scalar only; see the class comment)"));
+        
+        int[] probes = new int[n];
+        for (int i = 0; i < n; i++) {
+            probes[i] = i % 2 == 0 ? sorted[random.nextInt(sorted.length)] : random.nextInt();
+        }
+        
+        System.out.println("Lookup cost (" + sorted.length + " keys, " + n + " probes, ~50% hits), ns/op:");
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            int expected = 0;
+            for (int probe : probes) {
+                if (big.binarySearchIterative(probe)) expected++;
+            }
+            StringBuilder line = new StringBuilder(String.format("Round %d: binarySearchIterative %.1f",
+                    round + 1, (double) (System.nanoTime() - start) / n));
+            
+            start = System.nanoTime();
+            int hits = 0;
+            for (int probe : probes) {
+                if (frozen.search(probe)) hits++;
+            }
+            line.append(String.format(", FrozenTree %.1f", (double) (System.nanoTime() - start) / n));
+            boolean match = hits == expected;
+            
+            for (BlockTree blockTree : blockTrees) {
+                start = System.nanoTime();
+                hits = 0;
+                for (int probe : probes) {
+                    if (blockTree.search(probe)) hits++;
+                }
+                line.append(String.format(", B=%d %s %.1f", blockTree.getBlockSize(),
+                        blockTree.isVectorScan() ? "vector" : "scalar", (double) (System.nanoTime() - start) / n));
+                match &= hits == expected;
+            }
+            System.out.println(line + (match ? "" : " MISMATCH"));
+        }
+    }
+}
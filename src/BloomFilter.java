@@ -0,0 +1,124 @@
+public class BloomFilter {
+    
+    /*
+     * Bit array with k hash positions per key. A key that was added always
+     * has all k bits set, so mightContain never returns false for it; a key
+     * that was never added finds all k bits set only with the configured
+     * false-positive probability p.
+     * 
+     * Sizing for n keys: m = -n ln p / (ln 2)^2 bits, k = (m / n) ln 2.
+     * The k positions come from one 64-bit hash split into two halves,
+     * h1 + i * h2 (Kirsch-Mitzenmacher double hashing).
+     * 
+     * Keys cannot be removed; rebuild the filter to drop deleted keys.
+     */
+    private final long[] words;
+    private final int bitCount;
+    private final int hashCount;
+    
+    /**
+     * Create an empty filter sized for a number of keys
+     * 
+     * @param expectedKeys Number of keys the filter should hold
+     * @param falsePositiveRate Target false-positive probability, 0 < p < 1
+     */
+    public BloomFilter(int expectedKeys, double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False-positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        int keys = Math.max(1, expectedKeys);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-keys * Math.log(falsePositiveRate) / (ln2 * ln2));
+        
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / keys * ln2));
+        this.words = new long[(bitCount + 63) >>> 6];
+    }
+    
+    /**
+     * Record a key
+     * Time Complexity: O(k)
+     */
+    public void add(int key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+    
+    /**
+     * Check whether a key may have been added
+     * Time Complexity: O(k), stopping at the first clear bit
+     * 
+     * @return false if the key was definitely never added
+     */
+    public boolean mightContain(int key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private int index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+    
+    /**
+     * 64-bit finalizer (SplitMix64), so neighbouring keys get unrelated bits
+     */
+    private static long mix(int key) {
+        long z = key * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * Size of the bit array
+     */
+    public int getBitCount() {
+        return bitCount;
+    }
+    
+    /**
+     * Number of bits set and checked per key
+     */
+    public int getHashCount() {
+        return hashCount;
+    }
+    
+    /**
+     * Main method measuring the false-positive rate for a few targets
+     */
+    public static void main(String[] args) {
+        System.out.println("=== Bloom Filter ===\n");
+        
+        int n = 1_000_000;
+        int probes = 1_000_000;
+        for (double target : new double[] {0.1, 0.01, 0.001}) {
+            BloomFilter filter = new BloomFilter(n, target);
+            for (int i = 0; i < n; i++) {
+                filter.add(2 * i); // Even keys are present
+            }
+            
+            int falsePositives = 0;
+            for (int i = 0; i < probes; i++) {
+                if (filter.mightContain(2 * i + 1)) {
+                    falsePositives++;
+                }
+            }
+            System.out.printf("Target %.3f: %,d bits (%.1f bits/key), %d hashes, measured %.4f%n",
+                    target, filter.getBitCount(), (double) filter.getBitCount() / n,
+                    filter.getHashCount(), (double) falsePositives / probes);
+        }
+    }
+}
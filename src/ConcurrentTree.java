@@ -0,0 +1,378 @@
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentTree {
+    
+    /**
+     * Node with volatile links so readers never need a lock
+     * 
+     * deleted  - key is logically absent, node only routes searches
+     * unlinked - node was spliced out; writers that locked it must retry
+     */
+    static class TreeNode {
+        final int data;
+        volatile TreeNode left;
+        volatile TreeNode right;
+        volatile boolean deleted;
+        volatile boolean unlinked;
+        
+        TreeNode(int data) {
+            this.data = data;
+            this.left = null;
+            this.right = null;
+        }
+    }
+    
+    /*
+     * Concurrency scheme (optimistic fine-grained locking, no rotations):
+     * - contains() walks the volatile links without locking
+     * - A node's left/right fields are only written while holding that
+     *   node's monitor, so a writer locks the node(s) it changes, then
+     *   re-validates what it saw during its unlocked descent, retrying
+     *   from the root if anything moved
+     * - Locks are always taken parent before child, so writers cannot
+     *   deadlock
+     * - A node with two children is only marked deleted; nodes with at most
+     *   one child are spliced out. A spliced node keeps its child links, so
+     *   a reader already standing on it still reaches the rest of the tree
+     * - A marked node is spliced out as soon as a delete leaves it with at
+     *   most one child, so routing nodes cannot pile up under churn
+     */
+    private final TreeNode head; // Sentinel: the real root is head.left
+    private final AtomicInteger size;
+    
+    public ConcurrentTree() {
+        this.head = new TreeNode(0);
+        this.size = new AtomicInteger();
+    }
+    
+    /**
+     * ADD (INSERT) OPERATION
+     * Thread-safe; locks only the node that receives the new child
+     * Time Complexity: O(log n) average, O(n) worst case
+     * 
+     * @param data The value to insert
+     * @return true if added, false if already present
+     */
+    public boolean add(int data) {
+        while (true) {
+            TreeNode parent = head;
+            TreeNode current = head.left;
+            while (current != null && current.data != data) {
+                parent = current;
+                current = data < current.data ? current.left : current.right;
+            }
+            
+            if (current != null) {
+                // Key has a node; revive it if it was logically deleted
+                synchronized (current) {
+                    if (current.unlinked) {
+                        continue;
+                    }
+                    if (!current.deleted) {
+                        return false;
+                    }
+                    current.deleted = false;
+                    size.incrementAndGet();
+                    return true;
+                }
+            }
+            
+            synchronized (parent) {
+                boolean goLeft = goesLeft(parent, data);
+                if (parent.unlinked || (goLeft ? parent.left : parent.right) != null) {
+                    continue;
+                }
+                TreeNode node = new TreeNode(data);
+                if (goLeft) {
+                    parent.left = node;
+                } else {
+                    parent.right = node;
+                }
+                size.incrementAndGet();
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * DELETE OPERATION
+     * Thread-safe; locks the node and its parent
+     * 
+     * Handles the same cases as TreeAddDelete:
+     * 1. Leaf or one child - splice the node out of its parent
+     * 2. Two children - mark it deleted and keep it as a routing node
+     * 
+     * If case 1 removes a child of a routing node, that node is spliced
+     * out too (see removeRouting)
+     * 
+     * Time Complexity: O(log n) average, O(n) worst case
+     * 
+     * @param data The value to delete
+     * @return true if deleted, false if not found
+     */
+    public boolean delete(int data) {
+        while (true) {
+            TreeNode parent = head;
+            TreeNode current = head.left;
+            while (current != null && current.data != data) {
+                parent = current;
+                current = data < current.data ? current.left : current.right;
+            }
+            
+            if (current == null) {
+                return false;
+            }
+            
+            boolean wasPresent;
+            TreeNode routing = null;
+            synchronized (parent) {
+                synchronized (current) {
+                    if (parent.unlinked || current.unlinked || child(parent, data) != current) {
+                        continue;
+                    }
+                    
+                    wasPresent = !current.deleted;
+                    if (current.left != null && current.right != null) {
+                        // CASE 2: two children - logical delete only
+                        current.deleted = true;
+                    } else {
+                        // CASE 1: at most one child - splice out (also cleans
+                        // up a routing node that has lost a child)
+                        unlink(parent, current);
+                        if (parent != head && parent.deleted) {
+                            routing = parent; // Down to one child
+                        }
+                    }
+                }
+            }
+            
+            if (wasPresent) {
+                size.decrementAndGet();
+            }
+            if (routing != null) {
+                removeRouting(routing);
+            }
+            return wasPresent;
+        }
+    }
+    
+    /**
+     * Helper: splice a routing node out once it has at most one child
+     * 
+     * The caller had to release its locks first (locks go parent before
+     * child), so the node's parent is found again from the root. Nothing
+     * is done if the node was revived, regained a second child or was
+     * already spliced out by another thread.
+     */
+    private void removeRouting(TreeNode node) {
+        int data = node.data;
+        while (true) {
+            TreeNode parent = head;
+            TreeNode current = head.left;
+            while (current != null && current.data != data) {
+                parent = current;
+                current = data < current.data ? current.left : current.right;
+            }
+            
+            if (current != node) {
+                return; // Already spliced out
+            }
+            
+            synchronized (parent) {
+                synchronized (node) {
+                    if (node.unlinked || !node.deleted || (node.left != null && node.right != null)) {
+                        return;
+                    }
+                    if (parent.unlinked || child(parent, data) != node) {
+                        continue;
+                    }
+                    unlink(parent, node);
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Helper: replace a node that has at most one child by that child
+     * Caller holds the locks of parent and node
+     */
+    private void unlink(TreeNode parent, TreeNode node) {
+        TreeNode replacement = node.left != null ? node.left : node.right;
+        if (goesLeft(parent, node.data)) {
+            parent.left = replacement;
+        } else {
+            parent.right = replacement;
+        }
+        node.deleted = true;
+        node.unlinked = true;
+    }
+    
+    /**
+     * Check if a value exists in the tree
+     * Lock-free; safe to call while other threads add and delete
+     * Time Complexity: O(log n) average
+     */
+    public boolean contains(int data) {
+        TreeNode current = head.left;
+        while (current != null) {
+            if (current.data == data) {
+                return !current.deleted;
+            }
+            current = data < current.data ? current.left : current.right;
+        }
+        return false;
+    }
+    
+    /**
+     * BasicTree-style alias for add
+     */
+    public void insert(int data) {
+        add(data);
+    }
+    
+    /**
+     * BasicTree-style alias for contains
+     */
+    public boolean search(int data) {
+        return contains(data);
+    }
+    
+    private boolean goesLeft(TreeNode parent, int data) {
+        return parent == head || data < parent.data;
+    }
+    
+    private TreeNode child(TreeNode parent, int data) {
+        return goesLeft(parent, data) ? parent.left : parent.right;
+    }
+    
+    /**
+     * Number of keys currently present
+     * Time Complexity: O(1)
+     */
+    public int size() {
+        return size.get();
+    }
+    
+    /**
+     * Collect keys in ascending order (iterative in-order walk)
+     * Weakly consistent: reflects some, but not necessarily all, updates
+     * made concurrently with the walk
+     * 
+     * Time Complexity: O(n)
+     */
+    public java.util.List<Integer> toList() {
+        java.util.List<Integer> result = new java.util.ArrayList<>();
+        ArrayDeque<TreeNode> stack = new ArrayDeque<>();
+        TreeNode current = head.left;
+        
+        while (current != null || !stack.isEmpty()) {
+            while (current != null) {
+                stack.push(current);
+                current = current.left;
+            }
+            current = stack.pop();
+            if (!current.deleted) {
+                result.add(current.data);
+            }
+            current = current.right;
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Display tree in in-order traversal (sorted order)
+     */
+    public void display() {
+        System.out.print("Tree (in-order): ");
+        for (int value : toList()) {
+            System.out.print(value + " ");
+        }
+        System.out.println();
+    }
+    
+    /**
+     * Run a mixed workload (80% contains, 10% add, 10% delete) on several threads
+     * 
+     * @return Operations per second
+     */
+    private static double runWorkload(ConcurrentTree tree, int threads, int opsPerThread, int keyRange)
+            throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final long seed = 1000 + t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < opsPerThread; i++) {
+                    int key = random.nextInt(keyRange);
+                    int op = random.nextInt(10);
+                    if (op == 0) {
+                        tree.add(key);
+                    } else if (op == 1) {
+                        tree.delete(key);
+                    } else {
+                        tree.contains(key);
+                    }
+                }
+            });
+        }
+        
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long nanos = System.nanoTime() - start;
+        return (double) threads * opsPerThread / nanos * 1_000_000_000L;
+    }
+    
+    /**
+     * Main method demonstrating concurrent add, delete and contains
+     */
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== Concurrent Binary Search Tree ===\n");
+        
+        ConcurrentTree tree = new ConcurrentTree();
+        
+        // Same sequence as TreeAddDelete
+        System.out.println("--- ADD Operations ---");
+        int[] values = {50, 30, 70, 20, 40, 60, 80, 10};
+        for (int value : values) {
+            tree.add(value);
+        }
+        tree.display();
+        
+        System.out.println("\n--- DELETE Operations ---");
+        System.out.println("Delete leaf (10): " + tree.delete(10));
+        System.out.println("Delete one child (20): " + tree.delete(20));
+        System.out.println("Delete two children (30): " + tree.delete(30));
+        System.out.println("Delete missing (100): " + tree.delete(100));
+        tree.display();
+        System.out.println("Contains 30: " + tree.contains(30) + ", contains 40: " + tree.contains(40));
+        
+        // Scaling with thread count
+        int keyRange = 1_000_000;
+        int opsPerThread = 1_000_000;
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("\n--- Mixed workload (80% contains, 10% add, 10% delete) ---");
+        System.out.println("Available processors: " + cores);
+        
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            ConcurrentTree shared = new ConcurrentTree();
+            Random random = new Random(7);
+            for (int i = 0; i < keyRange / 2; i++) {
+                shared.add(random.nextInt(keyRange));
+            }
+            
+            double opsPerSecond = runWorkload(shared, threads, opsPerThread, keyRange);
+            boolean consistent = shared.size() == shared.toList().size();
+            System.out.printf("%2d thread(s): %,12.0f ops/s  (size consistent: %b)%n",
+                    threads, opsPerSecond, consistent);
+        }
+    }
+}
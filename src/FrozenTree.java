@@ -0,0 +1,150 @@
+public class FrozenTree {
+    
+    /*
+     * Eytzinger (BFS) layout: the implicit tree is stored level by level,
+     * 1-indexed, so node i has children 2i and 2i + 1. The first levels
+     * share a handful of cache lines and the next probe address is known
+     * before the comparison finishes, so no child pointers are loaded.
+     */
+    private final int[] layout;
+    private final int size;
+    
+    /**
+     * Build a snapshot from keys in ascending order without duplicates
+     * Use BasicTree.freeze() to obtain one from a live tree
+     * 
+     * Time Complexity: O(n)
+     * Space Complexity: O(n)
+     * 
+     * @param sortedKeys Keys in strictly ascending order
+     */
+    public FrozenTree(int[] sortedKeys) {
+        this.size = sortedKeys.length;
+        this.layout = new int[size + 1];
+        fill(sortedKeys, new int[] {0}, 1);
+    }
+    
+    /**
+     * Helper: in-order walk of the implicit tree, assigning sorted keys
+     */
+    private void fill(int[] sortedKeys, int[] next, int i) {
+        if (i <= size) {
+            fill(sortedKeys, next, 2 * i);
+            layout[i] = sortedKeys[next[0]++];
+            fill(sortedKeys, next, 2 * i + 1);
+        }
+    }
+    
+    /**
+     * Search for a value in the snapshot
+     * 
+     * Algorithm:
+     * 1. Descend from index 1: i = 2i + (layout[i] < data), no early exit
+     * 2. Stop once i runs off the array (always after ~log2(n) steps)
+     * 3. The last left turn was at the lower bound of data: strip the
+     *    trailing right turns (1 bits) plus that left turn from i
+     * 4. Compare once at the end
+     * 
+     * The loop body has no data-dependent branch, only a conditional add
+     * 
+     * Time Complexity: O(log n) guaranteed
+     * Space Complexity: O(1)
+     * 
+     * @param data The value to search for
+     * @return true if found, false otherwise
+     */
+    public boolean search(int data) {
+        int[] a = layout;
+        int n = size;
+        int i = 1;
+        while (i <= n) {
+            i = 2 * i + (a[i] < data ? 1 : 0);
+        }
+        i >>>= Integer.numberOfTrailingZeros(~i) + 1;
+        return i != 0 && a[i] == data;
+    }
+    
+    /**
+     * Get the number of keys in the snapshot
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * In-order traversal of the implicit tree (produces sorted output)
+     * Time Complexity: O(n)
+     */
+    public void inOrderTraversal() {
+        inOrderHelper(1);
+    }
+    
+    private void inOrderHelper(int i) {
+        if (i <= size) {
+            inOrderHelper(2 * i);
+            System.out.print(layout[i] + " ");
+            inOrderHelper(2 * i + 1);
+        }
+    }
+    
+    /**
+     * Main method comparing lookups on the frozen snapshot and the live tree
+     */
+    public static void main(String[] args) {
+        System.out.println("=== Frozen Search Snapshot (Eytzinger Layout) ===\n");
+        
+        BasicTree tree = new BasicTree();
+        System.out.println("Inserting values: 50, 30, 70, 20, 40, 60, 80");
+        tree.insert(50);
+        tree.insert(30);
+        tree.insert(70);
+        tree.insert(20);
+        tree.insert(40);
+        tree.insert(60);
+        tree.insert(80);
+        
+        FrozenTree frozen = tree.freeze();
+        System.out.println("\nFrozen in-order: ");
+        frozen.inOrderTraversal();
+        
+        System.out.println("\n\nSearch Operations:");
+        System.out.println("Search for 40: " + frozen.search(40)); // true
+        System.out.println("Search for 25: " + frozen.search(25)); // false
+        System.out.println("Search for 80: " + frozen.search(80)); // true
+        System.out.println("Search for 100: " + frozen.search(100)); // false
+        
+        // Throughput on a larger key set
+        int n = 1_000_000;
+        java.util.Random random = new java.util.Random(42);
+        BasicTree big = new BasicTree();
+        for (int i = 0; i < n; i++) {
+            big.insert(random.nextInt());
+        }
+        FrozenTree bigFrozen = big.freeze();
+        
+        int[] probes = new int[n];
+        for (int i = 0; i < n; i++) {
+            probes[i] = random.nextInt();
+        }
+        
+        System.out.println("\nLookup throughput (" + bigFrozen.size() + " keys, " + n + " probes):");
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            int hits = 0;
+            for (int probe : probes) {
+                if (big.search(probe)) hits++;
+            }
+            long treeNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            for (int probe : probes) {
+                if (bigFrozen.search(probe)) hits--;
+            }
+            long frozenNanos = System.nanoTime() - start;
+            
+            System.out.printf("Round %d: BasicTree %.1f ns/op, FrozenTree %.1f ns/op (%.1fx)%s%n",
+                    round + 1, (double) treeNanos / n, (double) frozenNanos / n,
+                    (double) treeNanos / frozenNanos, hits == 0 ? "" : " MISMATCH");
+        }
+    }
+}
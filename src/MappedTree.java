@@ -0,0 +1,280 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class MappedTree implements Closeable {
+    
+    /*
+     * File layout (all values are 4-byte big-endian ints):
+     * 
+     *   Header  [magic][version][size][root]            16 bytes
+     *   Node i  [key][left][right]   at 16 + 12 * i     12 bytes each
+     * 
+     * Child links are node indices, NIL (-1) for an empty slot.
+     */
+    static final int NIL = -1;
+    static final int MAGIC = 0x54524545; // "TREE"
+    static final int VERSION = 1;
+    
+    private static final int HEADER_BYTES = 16;
+    private static final int NODE_BYTES = 12;
+    private static final int SIZE_OFFSET = 8;
+    private static final int ROOT_OFFSET = 12;
+    
+    private static final int KEY = 0;
+    private static final int LEFT = 4;
+    private static final int RIGHT = 8;
+    
+    private static final int DEFAULT_CAPACITY = 1024;
+    
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    
+    /**
+     * Open a tree file, creating an empty one if it does not exist yet
+     * Reopening an existing file only maps it; no nodes are re-inserted
+     * 
+     * Time Complexity: O(1) - pages are loaded lazily by the OS
+     * 
+     * @param path Path of the tree file
+     * @throws IOException if the file cannot be mapped or is not a tree file
+     */
+    public MappedTree(String path) throws IOException {
+        this.file = new RandomAccessFile(new File(path), "rw");
+        this.channel = file.getChannel();
+        
+        try {
+            long length = channel.size();
+            if (length == 0) {
+                map(DEFAULT_CAPACITY);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(SIZE_OFFSET, 0);
+                buffer.putInt(ROOT_OFFSET, NIL);
+            } else {
+                if (length < HEADER_BYTES) {
+                    throw new IOException("Not a tree file: " + path);
+                }
+                map((int) ((length - HEADER_BYTES) / NODE_BYTES));
+                if (buffer.getInt(0) != MAGIC) {
+                    throw new IOException("Not a tree file: " + path);
+                }
+                if (buffer.getInt(4) != VERSION) {
+                    throw new IOException("Unsupported tree file version " + buffer.getInt(4) + ": " + path);
+                }
+                int size = buffer.getInt(SIZE_OFFSET);
+                int root = buffer.getInt(ROOT_OFFSET);
+                if (size < 0 || size > capacity) {
+                    throw new IOException("Corrupt tree file header: size " + size
+                            + " exceeds capacity " + capacity + ": " + path);
+                }
+                if (root != NIL && (root < 0 || root >= size)) {
+                    throw new IOException("Corrupt tree file header: root " + root
+                            + " outside " + size + " nodes: " + path);
+                }
+            }
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Map the file with room for the given number of nodes
+     * Mapping past the end of the file extends it
+     */
+    private void map(int nodeCapacity) throws IOException {
+        long bytes = HEADER_BYTES + (long) NODE_BYTES * nodeCapacity;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Tree file would exceed 2 GB mapping limit");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        capacity = nodeCapacity;
+    }
+    
+    private static int offset(int node) {
+        return HEADER_BYTES + NODE_BYTES * node;
+    }
+    
+    /**
+     * Insert a value into the BST
+     * Duplicates are ignored, as in BasicTree
+     * 
+     * The new node is written and counted before it is linked into its
+     * parent, so a crash mid-insert can at worst leave an unreachable slot
+     * 
+     * Time Complexity: O(log n) average, O(n) worst case
+     * 
+     * @param data The value to insert
+     * @throws IOException if the file has to grow and cannot be remapped
+     */
+    public void insert(int data) throws IOException {
+        int root = buffer.getInt(ROOT_OFFSET);
+        if (root == NIL) {
+            buffer.putInt(ROOT_OFFSET, newNode(data));
+            return;
+        }
+        
+        int current = root;
+        while (true) {
+            int key = buffer.getInt(offset(current) + KEY);
+            int field;
+            if (data < key) {
+                field = LEFT;
+            } else if (data > key) {
+                field = RIGHT;
+            } else {
+                // Ignore duplicates
+                return;
+            }
+            
+            int child = buffer.getInt(offset(current) + field);
+            if (child == NIL) {
+                // newNode may remap, so write the link afterwards
+                int node = newNode(data);
+                buffer.putInt(offset(current) + field, node);
+                return;
+            }
+            current = child;
+        }
+    }
+    
+    /**
+     * Append a node to the node area, doubling the file when full
+     */
+    private int newNode(int data) throws IOException {
+        int size = buffer.getInt(SIZE_OFFSET);
+        if (size == capacity) {
+            map(Math.max(1, capacity * 2)); // A header-only file maps 0 nodes
+        }
+        
+        int base = offset(size);
+        buffer.putInt(base + KEY, data);
+        buffer.putInt(base + LEFT, NIL);
+        buffer.putInt(base + RIGHT, NIL);
+        buffer.putInt(SIZE_OFFSET, size + 1);
+        return size;
+    }
+    
+    /**
+     * Search for a value in the BST
+     * Time Complexity: O(log n) average, O(n) worst case
+     * 
+     * @param data The value to search for
+     * @return true if found, false otherwise
+     */
+    public boolean search(int data) {
+        int current = buffer.getInt(ROOT_OFFSET);
+        while (current != NIL) {
+            int base = offset(current);
+            int key = buffer.getInt(base + KEY);
+            if (key == data) {
+                return true;
+            }
+            current = buffer.getInt(base + (data < key ? LEFT : RIGHT));
+        }
+        return false;
+    }
+    
+    /**
+     * In-order traversal: Left -> Root -> Right (produces sorted output)
+     * Time Complexity: O(n)
+     * 
+     * @param node Index of the current node being visited
+     */
+    public void inOrderTraversal(int node) {
+        if (node != NIL) {
+            int base = offset(node);
+            inOrderTraversal(buffer.getInt(base + LEFT));
+            System.out.print(buffer.getInt(base + KEY) + " ");
+            inOrderTraversal(buffer.getInt(base + RIGHT));
+        }
+    }
+    
+    /**
+     * Get the index of the root node (NIL if empty)
+     */
+    public int getRoot() {
+        return buffer.getInt(ROOT_OFFSET);
+    }
+    
+    /**
+     * Get the number of keys stored
+     */
+    public int size() {
+        return buffer.getInt(SIZE_OFFSET);
+    }
+    
+    /**
+     * Flush dirty pages to disk
+     * Without this the OS writes them back on its own schedule
+     */
+    public void force() {
+        buffer.force();
+    }
+    
+    /**
+     * Flush and close the file
+     * The tree must not be used after closing
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+        file.close();
+    }
+    
+    /**
+     * Main method demonstrating a tree that survives a restart
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== Memory-Mapped Persistent Tree ===\n");
+        
+        File path = File.createTempFile("mapped-tree", ".bin");
+        path.delete(); // Start from a fresh file
+        path.deleteOnExit();
+        
+        // First "process": build and close
+        int n = 1_000_000;
+        java.util.Random random = new java.util.Random(42);
+        long start = System.nanoTime();
+        try (MappedTree tree = new MappedTree(path.getPath())) {
+            System.out.println("Inserting values: 50, 30, 70, 20, 40, 60, 80");
+            tree.insert(50);
+            tree.insert(30);
+            tree.insert(70);
+            tree.insert(20);
+            tree.insert(40);
+            tree.insert(60);
+            tree.insert(80);
+            
+            System.out.println("\nIn-order Traversal (sorted): ");
+            tree.inOrderTraversal(tree.getRoot());
+            System.out.println();
+            
+            for (int i = 0; i < n; i++) {
+                tree.insert(random.nextInt());
+            }
+            System.out.println("\nBuilt tree with " + tree.size() + " keys in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+        
+        // Second "process": reopen without rebuilding
+        start = System.nanoTime();
+        try (MappedTree reopened = new MappedTree(path.getPath())) {
+            long openMicros = (System.nanoTime() - start) / 1_000;
+            System.out.println("Reopened tree with " + reopened.size() + " keys in " + openMicros + " us");
+            System.out.println("File size: " + path.length() / 1024 + " KB");
+            
+            System.out.println("\nSearch Operations after reopen:");
+            System.out.println("Search for 40: " + reopened.search(40)); // true
+            System.out.println("Search for 25: " + reopened.search(25)); // false (barring a random hit)
+            System.out.println("Search for 80: " + reopened.search(80)); // true
+        }
+    }
+}
@@ -0,0 +1,459 @@
+public class PersistentTree {
+    
+    /**
+     * Immutable node: once built it is never modified, so any number of
+     * versions can share it safely
+     */
+    static final class TreeNode {
+        final int data;
+        final TreeNode left;
+        final TreeNode right;
+        final int height;
+        final int size; // Nodes in this subtree, so any version knows its size
+        
+        TreeNode(int data, TreeNode left, TreeNode right) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+    }
+    
+    // Current version; replaced (never mutated) by add and delete
+    private volatile TreeNode root;
+    
+    public PersistentTree() {
+        this(null);
+    }
+    
+    private PersistentTree(TreeNode root) {
+        this.root = root;
+    }
+    
+    /**
+     * SNAPSHOT OPERATION
+     * Returns an independent tree that shares every node with this one
+     * Later adds and deletes on either tree do not affect the other, and
+     * reading a snapshot needs no locks
+     * 
+     * Time Complexity: O(1)
+     * Space Complexity: O(1)
+     * 
+     * @return Snapshot of the current version
+     */
+    public PersistentTree snapshot() {
+        return new PersistentTree(root);
+    }
+    
+    /**
+     * ADD (INSERT) OPERATION
+     * Copies only the nodes on the path from the root to the new leaf
+     * (plus the few touched by rebalancing); all other nodes are shared
+     * with earlier versions
+     * 
+     * Time Complexity: O(log n) - AVL balanced
+     * Space Complexity: O(log n) new nodes
+     * 
+     * @param data The value to insert
+     * @return true if added, false if already present
+     */
+    public synchronized boolean add(int data) {
+        TreeNode newRoot = addRecursive(root, data);
+        if (newRoot == root) {
+            return false;
+        }
+        root = newRoot;
+        return true;
+    }
+    
+    private static TreeNode addRecursive(TreeNode node, int data) {
+        if (node == null) {
+            return new TreeNode(data, null, null);
+        }
+        
+        if (data < node.data) {
+            TreeNode left = addRecursive(node.left, data);
+            return left == node.left ? node : rebalance(node.data, left, node.right);
+        } else if (data > node.data) {
+            TreeNode right = addRecursive(node.right, data);
+            return right == node.right ? node : rebalance(node.data, node.left, right);
+        }
+        // Duplicate: return the same node so callers see no change
+        return node;
+    }
+    
+    /**
+     * DELETE OPERATION
+     * Copies the path to the removed key; uses the in-order successor for
+     * nodes with two children, as TreeAddDelete does
+     * 
+     * Time Complexity: O(log n)
+     * Space Complexity: O(log n) new nodes
+     * 
+     * @param data The value to delete
+     * @return true if deleted, false if not found
+     */
+    public synchronized boolean delete(int data) {
+        TreeNode newRoot = deleteRecursive(root, data);
+        if (newRoot == root) {
+            return false;
+        }
+        root = newRoot;
+        return true;
+    }
+    
+    private static TreeNode deleteRecursive(TreeNode node, int data) {
+        if (node == null) {
+            return null;
+        }
+        
+        if (data < node.data) {
+            TreeNode left = deleteRecursive(node.left, data);
+            return left == node.left ? node : rebalance(node.data, left, node.right);
+        } else if (data > node.data) {
+            TreeNode right = deleteRecursive(node.right, data);
+            return right == node.right ? node : rebalance(node.data, node.left, right);
+        }
+        
+        // Found: leaf or one child - return the other side
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        
+        // Two children: replace with the in-order successor
+        TreeNode successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return rebalance(successor.data, node.left, deleteRecursive(node.right, successor.data));
+    }
+    
+    /**
+     * Build a node from its parts, rotating if the AVL property is broken
+     * Always allocates: the parts are immutable so nothing can be reused
+     */
+    private static TreeNode rebalance(int data, TreeNode left, TreeNode right) {
+        int balance = height(left) - height(right);
+        
+        if (balance > 1) {
+            if (height(left.left) < height(left.right)) {
+                // Left-Right
+                TreeNode pivot = left.right;
+                return new TreeNode(pivot.data,
+                        new TreeNode(left.data, left.left, pivot.left),
+                        new TreeNode(data, pivot.right, right));
+            }
+            // Left-Left
+            return new TreeNode(left.data, left.left, new TreeNode(data, left.right, right));
+        }
+        
+        if (balance < -1) {
+            if (height(right.right) < height(right.left)) {
+                // Right-Left
+                TreeNode pivot = right.left;
+                return new TreeNode(pivot.data,
+                        new TreeNode(data, left, pivot.left),
+                        new TreeNode(right.data, pivot.right, right.right));
+            }
+            // Right-Right
+            return new TreeNode(right.data, new TreeNode(data, left, right.left), right.right);
+        }
+        
+        return new TreeNode(data, left, right);
+    }
+    
+    private static int height(TreeNode node) {
+        return node == null ? 0 : node.height;
+    }
+    
+    private static int size(TreeNode node) {
+        return node == null ? 0 : node.size;
+    }
+    
+    /**
+     * JOIN PRIMITIVE
+     * Builds a balanced tree from left, key and right, where every value in
+     * left is smaller than key and every value in right is larger
+     * 
+     * Algorithm:
+     * 1. If the heights differ by at most 1, key becomes the new root
+     * 2. Otherwise walk down the inner spine of the taller tree until a
+     *    subtree is at most 1 taller than the shorter tree
+     * 3. Hang (subtree, key, shorter tree) there and rebalance on the way up
+     * 
+     * Time Complexity: O(|height(left) - height(right)| + 1)
+     */
+    private static TreeNode join(TreeNode left, int key, TreeNode right) {
+        if (height(left) > height(right) + 1) {
+            return joinRight(left, key, right);
+        }
+        if (height(right) > height(left) + 1) {
+            return joinLeft(left, key, right);
+        }
+        return new TreeNode(key, left, right);
+    }
+    
+    private static TreeNode joinRight(TreeNode left, int key, TreeNode right) {
+        if (height(left.right) <= height(right) + 1) {
+            return rebalance(left.data, left.left, new TreeNode(key, left.right, right));
+        }
+        return rebalance(left.data, left.left, joinRight(left.right, key, right));
+    }
+    
+    private static TreeNode joinLeft(TreeNode left, int key, TreeNode right) {
+        if (height(right.left) <= height(left) + 1) {
+            return rebalance(right.data, new TreeNode(key, left, right.left), right.right);
+        }
+        return rebalance(right.data, joinLeft(left, key, right.left), right.right);
+    }
+    
+    /**
+     * Join two trees where every value in left is smaller than every value
+     * in right, using the minimum of right as the middle key
+     * Time Complexity: O(log n)
+     */
+    private static TreeNode join2(TreeNode left, TreeNode right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        TreeNode min = right;
+        while (min.left != null) {
+            min = min.left;
+        }
+        return join(left, min.data, deleteRecursive(right, min.data));
+    }
+    
+    /**
+     * Helper: all values below key (or at most key when inclusive)
+     * Each level contributes one join whose cost is the height difference,
+     * and those differences telescope to O(log n) in total
+     */
+    private static TreeNode lessThan(TreeNode node, int key, boolean inclusive) {
+        if (node == null) {
+            return null;
+        }
+        if (key < node.data || (key == node.data && !inclusive)) {
+            return lessThan(node.left, key, inclusive);
+        }
+        return join(node.left, node.data, lessThan(node.right, key, inclusive));
+    }
+    
+    /**
+     * Helper: all values above key (or at least key when inclusive)
+     */
+    private static TreeNode greaterThan(TreeNode node, int key, boolean inclusive) {
+        if (node == null) {
+            return null;
+        }
+        if (key > node.data || (key == node.data && !inclusive)) {
+            return greaterThan(node.right, key, inclusive);
+        }
+        return join(greaterThan(node.left, key, inclusive), node.data, node.right);
+    }
+    
+    /**
+     * SPLIT OPERATION
+     * Partitions this version around key without modifying it
+     * 
+     * Time Complexity: O(log n)
+     * 
+     * @param key Split point
+     * @return Two trees: values < key, and values >= key
+     */
+    public PersistentTree[] split(int key) {
+        TreeNode current = root;
+        return new PersistentTree[] {
+            new PersistentTree(lessThan(current, key, false)),
+            new PersistentTree(greaterThan(current, key, true))
+        };
+    }
+    
+    /**
+     * JOIN OPERATION
+     * Concatenates two trees whose value ranges do not overlap
+     * 
+     * Time Complexity: O(log n)
+     * 
+     * @param left Tree whose values are all smaller than those of right
+     * @param right Tree whose values are all larger than those of left
+     * @return New tree holding the values of both
+     * @throws IllegalArgumentException if the value ranges overlap
+     */
+    public static PersistentTree join(PersistentTree left, PersistentTree right) {
+        TreeNode leftRoot = left.root;
+        TreeNode rightRoot = right.root;
+        if (leftRoot != null && rightRoot != null) {
+            TreeNode max = leftRoot;
+            while (max.right != null) {
+                max = max.right;
+            }
+            TreeNode min = rightRoot;
+            while (min.left != null) {
+                min = min.left;
+            }
+            if (max.data >= min.data) {
+                throw new IllegalArgumentException("Cannot join: left maximum " + max.data
+                        + " is not below right minimum " + min.data);
+            }
+        }
+        return new PersistentTree(join2(leftRoot, rightRoot));
+    }
+    
+    /**
+     * RANGE DELETE OPERATION
+     * Removes every value in [min, max] with two splits and one join, so
+     * the cost does not depend on how many values the range covers
+     * 
+     * Time Complexity: O(log n)
+     * 
+     * @param min Lower bound (inclusive)
+     * @param max Upper bound (inclusive)
+     * @return Number of values removed
+     */
+    public synchronized int deleteRange(int min, int max) {
+        if (min > max) {
+            return 0;
+        }
+        TreeNode oldRoot = root;
+        root = join2(lessThan(oldRoot, min, false), greaterThan(oldRoot, max, false));
+        return size(oldRoot) - size(root);
+    }
+    
+    /**
+     * RANGE EXTRACT OPERATION
+     * Returns the values in [min, max] as a new tree; this tree is unchanged
+     * 
+     * Time Complexity: O(log n)
+     */
+    public PersistentTree extractRange(int min, int max) {
+        if (min > max) {
+            return new PersistentTree();
+        }
+        return new PersistentTree(greaterThan(lessThan(root, max, true), min, true));
+    }
+    
+    /**
+     * Check if a value exists in this version
+     * Lock-free: reads one volatile root and immutable nodes
+     * Time Complexity: O(log n)
+     */
+    public boolean contains(int data) {
+        TreeNode current = root;
+        while (current != null) {
+            if (current.data == data) {
+                return true;
+            }
+            current = data < current.data ? current.left : current.right;
+        }
+        return false;
+    }
+    
+    /**
+     * Number of keys in this version
+     * Time Complexity: O(1)
+     */
+    public int size() {
+        return size(root);
+    }
+    
+    /**
+     * Display tree in in-order traversal (sorted order)
+     */
+    public void display() {
+        System.out.print("Tree (in-order): ");
+        inOrder(root);
+        System.out.println();
+    }
+    
+    private void inOrder(TreeNode node) {
+        if (node != null) {
+            inOrder(node.left);
+            System.out.print(node.data + " ");
+            inOrder(node.right);
+        }
+    }
+    
+    /**
+     * Main method demonstrating O(1) snapshots under concurrent updates
+     */
+    public static void main(String[] args) {
+        System.out.println("=== Persistent (Path-Copying) Tree ===\n");
+        
+        PersistentTree tree = new PersistentTree();
+        int[] values = {50, 30, 70, 20, 40, 60, 80, 10};
+        for (int value : values) {
+            tree.add(value);
+        }
+        tree.display();
+        
+        // Take a snapshot, then keep writing to the live tree
+        PersistentTree report = tree.snapshot();
+        System.out.println("\nSnapshot taken; deleting 30 and 50, adding 55 on the live tree");
+        tree.delete(30);
+        tree.delete(50);
+        tree.add(55);
+        
+        System.out.print("Live     ");
+        tree.display();
+        System.out.print("Snapshot ");
+        report.display();
+        System.out.println("Live contains 30: " + tree.contains(30) + ", snapshot contains 30: " + report.contains(30));
+        
+        // Snapshot cost versus a full copy
+        int n = 1_000_000;
+        java.util.Random random = new java.util.Random(42);
+        PersistentTree big = new PersistentTree();
+        for (int i = 0; i < n; i++) {
+            big.add(random.nextInt());
+        }
+        
+        long start = System.nanoTime();
+        PersistentTree snap = big.snapshot();
+        long snapshotNanos = System.nanoTime() - start;
+        
+        for (int i = 0; i < 1000; i++) {
+            big.add(random.nextInt());
+        }
+        System.out.println("\nSnapshot of " + snap.size() + " keys took " + snapshotNanos + " ns");
+        System.out.println("After 1000 more adds: live size " + big.size() + ", snapshot size " + snap.size());
+        
+        // Split, join and range delete
+        System.out.println("\n--- Split / Join / Range Delete ---");
+        PersistentTree ids = new PersistentTree();
+        for (int id = 1000; id < 1020; id++) {
+            ids.add(id);
+        }
+        PersistentTree[] halves = ids.split(1010);
+        System.out.print("split(1010) lower: ");
+        halves[0].display();
+        System.out.print("split(1010) upper: ");
+        halves[1].display();
+        System.out.print("join(lower, upper):  ");
+        join(halves[0], halves[1]).display();
+        try {
+            join(halves[1], halves[0]);
+        } catch (IllegalArgumentException e) {
+            System.out.println("join(upper, lower):  " + e.getMessage());
+        }
+        
+        System.out.print("extractRange(1005, 1008): ");
+        ids.extractRange(1005, 1008).display();
+        int removed = ids.deleteRange(1005, 1014);
+        System.out.print("deleteRange(1005, 1014) removed " + removed + ": ");
+        ids.display();
+        
+        // Purge a wide block from the big tree
+        start = System.nanoTime();
+        removed = big.deleteRange(Integer.MIN_VALUE / 2, Integer.MAX_VALUE / 2);
+        long purgeNanos = System.nanoTime() - start;
+        System.out.println("\nPurged " + removed + " keys (half the key space) in " + purgeNanos / 1000 + " us; "
+                + big.size() + " remain");
+    }
+}
@@ -4,6 +4,7 @@ public class TreeAddDelete {
         int data;
         TreeNode left;
         TreeNode right;
+        boolean deleted; // Tombstone: only set in lazy-delete mode
         
         TreeNode(int data) {
             this.data = data;
@@ -12,10 +13,60 @@ public class TreeAddDelete {
         }
     }
     
+    /**
+     * Default tombstone ratio that triggers a rebuild in lazy-delete mode
+     */
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+    
     private TreeNode root;
+    private int size; // Live values; maintained by add/delete so it never needs a full walk
+    private int tombstones;
+    private final boolean lazyDelete;
+    private final double compactionThreshold;
+    
+    // Optional free list of detached nodes, chained through their right field
+    private TreeNode freeList;
+    private int pooledNodes;
+    private int maxPooledNodes; // 0 = pooling disabled
+    
+    private boolean quiet;      // true = add() prints nothing
+    private TreeMetrics metrics; // null when metrics are disabled
+    
+    // Nodes visited and key comparisons by the last add, delete or
+    // contains descent; stored only while metrics are enabled
+    private int descentDepth;
+    private int descentComparisons;
     
     public TreeAddDelete() {
+        this(false, DEFAULT_COMPACTION_THRESHOLD);
+    }
+    
+    /**
+     * Constructor choosing between eager and lazy deletion
+     * 
+     * @param lazyDelete true to mark deleted nodes as tombstones instead of
+     *                   unlinking them
+     */
+    public TreeAddDelete(boolean lazyDelete) {
+        this(lazyDelete, DEFAULT_COMPACTION_THRESHOLD);
+    }
+    
+    /**
+     * Constructor for lazy-delete mode with a custom compaction threshold
+     * 
+     * @param lazyDelete true to mark deleted nodes as tombstones
+     * @param compactionThreshold Fraction of tombstones among all nodes
+     *                            (0 to 1) at which the tree is rebuilt
+     */
+    public TreeAddDelete(boolean lazyDelete, double compactionThreshold) {
+        if (compactionThreshold <= 0 || compactionThreshold > 1) {
+            throw new IllegalArgumentException("Compaction threshold must be in (0, 1]: " + compactionThreshold);
+        }
         this.root = null;
+        this.size = 0;
+        this.tombstones = 0;
+        this.lazyDelete = lazyDelete;
+        this.compactionThreshold = compactionThreshold;
     }
     
     /**
@@ -27,21 +78,46 @@ public class TreeAddDelete {
      * @param data The value to insert
      */
     public void add(int data) {
-        root = addRecursive(root, data);
-        System.out.println("Added: " + data);
+        if (metrics == null) {
+            addValue(data);
+            return;
+        }
+        long start = metrics.begin();
+        int oldSize = size;
+        addValue(data);
+        record(TreeMetrics.Operation.INSERT, data, size > oldSize, start);
     }
     
-    private TreeNode addRecursive(TreeNode node, int data) {
+    private void addValue(int data) {
+        root = addRecursive(root, data, 0, 0);
+        if (!quiet) {
+            System.out.println("Added: " + data);
+        }
+    }
+    
+    /**
+     * depth and comparisons count the nodes and key tests above node, for
+     * metrics (see countDescent)
+     */
+    private TreeNode addRecursive(TreeNode node, int data, int depth, int comparisons) {
         // Create new node if empty position
         if (node == null) {
-            return new TreeNode(data);
+            countDescent(depth, comparisons);
+            size++;
+            return newNode(data);
         }
         
         // Insert in appropriate subtree
         if (data < node.data) {
-            node.left = addRecursive(node.left, data);
+            node.left = addRecursive(node.left, data, depth + 1, comparisons + 1);
         } else if (data > node.data) {
-            node.right = addRecursive(node.right, data);
+            node.right = addRecursive(node.right, data, depth + 1, comparisons + 2);
+        } else {
+            countDescent(depth + 1, comparisons + 2);
+            if (node.deleted) {
+                // Re-adding a tombstoned value just revives the node
+                revive(node);
+            }
         }
         // Ignore duplicates
         
@@ -59,61 +135,212 @@ public class TreeAddDelete {
      * 2. Node has one child - replace it with its child
      * 3. Node has two children - find in-order successor and replace
      * 
+     * The outcome comes from the descent itself: deleteRecursive decrements
+     * the size counter only when it unlinks a node, so no size walk is needed
+     * 
      * @param data The value to delete
      * @return true if deleted, false if not found
      */
     public boolean delete(int data) {
-        int size = getSize(root);
-        root = deleteRecursive(root, data);
-        int newSize = getSize(root);
-        
-        boolean deleted = (size > newSize);
-        if (deleted) {
-            System.out.println("Deleted: " + data);
-        } else {
-            System.out.println("Value " + data + " not found in tree");
+        if (metrics == null) {
+            return deleteValue(data);
         }
+        long start = metrics.begin();
+        boolean deleted = deleteValue(data);
+        record(TreeMetrics.Operation.DELETE, data, deleted, start);
         return deleted;
     }
     
-    private TreeNode deleteRecursive(TreeNode node, int data) {
+    private boolean deleteValue(int data) {
+        int oldSize = size;
+        if (lazyDelete) {
+            markDeleted(data);
+            compactIfNeeded();
+        } else {
+            root = deleteRecursive(root, data, 0, 0);
+        }
+        return size < oldSize;
+    }
+    
+    /**
+     * LAZY DELETE
+     * Finds the node and marks it as a tombstone; no restructuring, so
+     * bursts of deletes never trigger the CASE 3 successor copy
+     * Time Complexity: O(log n) average
+     */
+    private void markDeleted(int data) {
+        TreeNode current = root;
+        int depth = 0;
+        while (current != null) {
+            depth++;
+            if (current.data == data) {
+                countDescent(depth, 2 * depth - 1);
+                if (!current.deleted) {
+                    current.deleted = true;
+                    size--;
+                    tombstones++;
+                }
+                return;
+            }
+            current = data < current.data ? current.left : current.right;
+        }
+        countDescent(depth, 2 * depth);
+    }
+    
+    private void revive(TreeNode node) {
+        node.deleted = false;
+        size++;
+        tombstones--;
+    }
+    
+    /**
+     * Rebuild once tombstones exceed the configured share of all nodes
+     * Like a scapegoat tree's global rebuild: the O(n) rebuild happens only
+     * after Theta(n) deletes, so it adds O(1) amortized per delete
+     */
+    private void compactIfNeeded() {
+        if (tombstones > 0 && tombstones >= compactionThreshold * (size + tombstones)) {
+            compact();
+        }
+    }
+    
+    /**
+     * COMPACTION
+     * Drops all tombstones and rebuilds a perfectly balanced tree from the
+     * live values; callers may also invoke it from a maintenance task
+     * 
+     * Time Complexity: O(n)
+     * Space Complexity: O(n) for the temporary array
+     */
+    public void compact() {
+        int[] live = toArray();
+        releaseTree(root);
+        size = 0;
+        tombstones = 0;
+        root = buildBalanced(live, 0, live.length - 1);
+    }
+    
+    /**
+     * Number of tombstoned nodes still in the tree (always 0 in eager mode)
+     */
+    public int getTombstoneCount() {
+        return tombstones;
+    }
+    
+    private TreeNode deleteRecursive(TreeNode node, int data, int depth, int comparisons) {
         if (node == null) {
+            countDescent(depth, comparisons);
             return null;
         }
         
         // Navigate to the node to delete
         if (data < node.data) {
-            node.left = deleteRecursive(node.left, data);
+            node.left = deleteRecursive(node.left, data, depth + 1, comparisons + 1);
         } else if (data > node.data) {
-            node.right = deleteRecursive(node.right, data);
+            node.right = deleteRecursive(node.right, data, depth + 1, comparisons + 2);
         } else {
+            countDescent(depth + 1, comparisons + 2);
             // Found the node to delete - handle three cases
+            size--;
             
             // CASE 1: Node is a leaf (no children)
             if (node.left == null && node.right == null) {
+                release(node);
                 return null;
             }
             
             // CASE 2: Node has only right child
             if (node.left == null) {
-                return node.right;
+                TreeNode child = node.right;
+                release(node);
+                return child;
             }
             
             // CASE 2: Node has only left child
             if (node.right == null) {
-                return node.left;
+                TreeNode child = node.left;
+                release(node);
+                return child;
             }
             
             // CASE 3: Node has two children
             // Find the minimum value in the right subtree (in-order successor)
             TreeNode minRight = findMin(node.right);
             node.data = minRight.data;
-            node.right = deleteRecursive(node.right, minRight.data);
+            node.right = removeMin(node.right);
         }
         
         return node;
     }
     
+    /**
+     * NODE POOL
+     * Keeps up to maxPooledNodes detached nodes on a free list and reuses
+     * them for later adds, so delete/re-add churn stops producing garbage
+     * Pass 0 to disable pooling and drop the pooled nodes
+     * 
+     * @param maxPooledNodes Upper bound on nodes kept for reuse
+     */
+    public void enableNodePool(int maxPooledNodes) {
+        if (maxPooledNodes < 0) {
+            throw new IllegalArgumentException("Pool size must not be negative: " + maxPooledNodes);
+        }
+        this.maxPooledNodes = maxPooledNodes;
+        while (pooledNodes > maxPooledNodes) {
+            freeList = freeList.right;
+            pooledNodes--;
+        }
+    }
+    
+    /**
+     * Number of detached nodes currently waiting for reuse
+     */
+    public int getPooledNodeCount() {
+        return pooledNodes;
+    }
+    
+    /**
+     * Take a node from the pool, or allocate one if the pool is empty
+     */
+    private TreeNode newNode(int data) {
+        TreeNode node = freeList;
+        if (node == null) {
+            return new TreeNode(data);
+        }
+        freeList = node.right;
+        pooledNodes--;
+        node.data = data;
+        node.right = null;
+        return node;
+    }
+    
+    /**
+     * Return a node that has just been unlinked from the tree to the pool
+     * The caller must have read the node's children before calling this
+     */
+    private void release(TreeNode node) {
+        if (pooledNodes < maxPooledNodes) {
+            node.left = null;
+            node.deleted = false;
+            node.right = freeList;
+            freeList = node;
+            pooledNodes++;
+        }
+    }
+    
+    /**
+     * Return every node of a discarded tree to the pool (post-order)
+     */
+    private void releaseTree(TreeNode node) {
+        if (node != null && pooledNodes < maxPooledNodes) {
+            TreeNode left = node.left;
+            TreeNode right = node.right;
+            releaseTree(left);
+            releaseTree(right);
+            release(node);
+        }
+    }
+    
     /**
      * Find the node with minimum value (leftmost node)
      * Time Complexity: O(log n) average
@@ -125,15 +352,182 @@ public class TreeAddDelete {
         return node;
     }
     
+    /**
+     * Unlink the node with minimum value from a subtree
+     * Used by CASE 3 so the successor is removed without a second search
+     * Time Complexity: O(log n) average
+     * 
+     * @return Root of the subtree without its minimum
+     */
+    private TreeNode removeMin(TreeNode node) {
+        if (node.left == null) {
+            TreeNode rest = node.right;
+            release(node);
+            return rest;
+        }
+        node.left = removeMin(node.left);
+        return node;
+    }
+    
     /**
      * Get the total number of nodes in the tree
-     * Time Complexity: O(n)
+     * Time Complexity: O(1)
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * BATCH ADD OPERATION
+     * Inserts many values in one pass over the tree instead of one descent
+     * (and one console line) per value
+     * 
+     * Algorithm:
+     * 1. Sort a copy of the batch and drop duplicates
+     * 2. At each node, binary-search the batch slice around node.data:
+     *    the smaller part goes down the left subtree, the larger part down
+     *    the right subtree, an equal value is skipped
+     * 3. When a slice reaches an empty position, build a balanced subtree
+     *    from it directly
+     * 
+     * Each tree node is visited at most once per batch, and every shared
+     * prefix of the root-to-leaf paths is walked once for the whole batch
+     * 
+     * Time Complexity: O(m log m + min(n, m log n)) for a batch of m values
+     * Space Complexity: O(m) for the sorted copy
+     * 
+     * @param values Values to insert, in any order
+     * @return Number of values actually added (excluding ones already present)
      */
-    private int getSize(TreeNode node) {
+    public int addAll(int[] values) {
+        int[] batch = sortedDistinct(values);
+        int oldSize = size;
+        root = addAllRecursive(root, batch, 0, batch.length);
+        return size - oldSize;
+    }
+    
+    /**
+     * Helper: insert batch[from, to) below node
+     */
+    private TreeNode addAllRecursive(TreeNode node, int[] batch, int from, int to) {
+        if (from >= to) {
+            return node;
+        }
+        
+        // Empty position: everything in the slice belongs here
         if (node == null) {
-            return 0;
+            return buildBalanced(batch, from, to - 1);
         }
-        return 1 + getSize(node.left) + getSize(node.right);
+        
+        int split = java.util.Arrays.binarySearch(batch, from, to, node.data);
+        int leftEnd = split >= 0 ? split : -split - 1;
+        int rightStart = split >= 0 ? split + 1 : leftEnd; // Skip duplicate of node.data
+        
+        if (split >= 0 && node.deleted) {
+            revive(node);
+        }
+        
+        node.left = addAllRecursive(node.left, batch, from, leftEnd);
+        node.right = addAllRecursive(node.right, batch, rightStart, to);
+        return node;
+    }
+    
+    /**
+     * Helper: build a balanced subtree from sorted values [start, end]
+     * Time Complexity: O(k)
+     */
+    private TreeNode buildBalanced(int[] batch, int start, int end) {
+        if (start > end) {
+            return null;
+        }
+        
+        int mid = (start + end) >>> 1;
+        TreeNode node = newNode(batch[mid]);
+        size++;
+        node.left = buildBalanced(batch, start, mid - 1);
+        node.right = buildBalanced(batch, mid + 1, end);
+        return node;
+    }
+    
+    /**
+     * BATCH DELETE OPERATION
+     * Removes many values in one pass over the tree
+     * 
+     * Algorithm:
+     * 1. Sort a copy of the batch and drop duplicates
+     * 2. At each node, split the batch slice around node.data and process
+     *    both subtrees first (post-order)
+     * 3. If node.data is in the batch, remove the node with the same three
+     *    cases as delete; its subtrees are already final at that point
+     * 4. Stop descending as soon as a slice is empty
+     * 
+     * Time Complexity: O(m log m + min(n, m log n)) for a batch of m values
+     * Space Complexity: O(m) for the sorted copy
+     * 
+     * @param values Values to delete, in any order
+     * @return Number of values actually deleted (excluding ones not present)
+     */
+    public int deleteAll(int[] values) {
+        int[] batch = sortedDistinct(values);
+        int oldSize = size;
+        root = deleteAllRecursive(root, batch, 0, batch.length);
+        compactIfNeeded();
+        return oldSize - size;
+    }
+    
+    /**
+     * Helper: delete batch[from, to) below node
+     */
+    private TreeNode deleteAllRecursive(TreeNode node, int[] batch, int from, int to) {
+        if (node == null || from >= to) {
+            return node;
+        }
+        
+        int split = java.util.Arrays.binarySearch(batch, from, to, node.data);
+        int leftEnd = split >= 0 ? split : -split - 1;
+        int rightStart = split >= 0 ? split + 1 : leftEnd;
+        
+        node.left = deleteAllRecursive(node.left, batch, from, leftEnd);
+        node.right = deleteAllRecursive(node.right, batch, rightStart, to);
+        
+        if (split < 0 || node.deleted) {
+            return node;
+        }
+        
+        if (lazyDelete) {
+            node.deleted = true;
+            size--;
+            tombstones++;
+            return node;
+        }
+        
+        // node.data is in the batch - same three cases as deleteRecursive
+        size--;
+        if (node.left == null || node.right == null) {
+            TreeNode child = node.left != null ? node.left : node.right;
+            release(node);
+            return child;
+        }
+        TreeNode minRight = findMin(node.right);
+        node.data = minRight.data;
+        node.right = removeMin(node.right);
+        return node;
+    }
+    
+    /**
+     * Helper: sorted copy of values with duplicates removed
+     */
+    private static int[] sortedDistinct(int[] values) {
+        int[] sorted = values.clone();
+        java.util.Arrays.sort(sorted);
+        
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return java.util.Arrays.copyOf(sorted, count);
     }
     
     /**
@@ -148,32 +542,120 @@ public class TreeAddDelete {
     private void inOrder(TreeNode node) {
         if (node != null) {
             inOrder(node.left);
-            System.out.print(node.data + " ");
+            if (!node.deleted) {
+                System.out.print(node.data + " ");
+            }
             inOrder(node.right);
         }
     }
     
+    /**
+     * Copy all values into an array in ascending order
+     * Time Complexity: O(n)
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int[] index = {0};
+        toArrayRecursive(root, result, index);
+        return result;
+    }
+    
+    private void toArrayRecursive(TreeNode node, int[] array, int[] index) {
+        if (node != null) {
+            toArrayRecursive(node.left, array, index);
+            if (!node.deleted) {
+                array[index[0]++] = node.data;
+            }
+            toArrayRecursive(node.right, array, index);
+        }
+    }
+    
     /**
      * Check if a value exists in the tree
      * Time Complexity: O(log n) average
      */
     public boolean contains(int data) {
-        return searchRecursive(root, data);
+        if (metrics == null) {
+            return searchRecursive(root, data, 0);
+        }
+        long start = metrics.begin();
+        boolean found = searchRecursive(root, data, 0);
+        record(TreeMetrics.Operation.LOOKUP, data, found, start);
+        return found;
+    }
+    
+    /**
+     * Turn the "Added: x" console message of add() off (true) or on
+     * Quiet trees do no string building on the mutation paths
+     */
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
     }
     
-    private boolean searchRecursive(TreeNode node, int data) {
+    /**
+     * Start recording metrics for add, delete and contains: counts,
+     * descent depth, comparisons and latency percentiles, plus JFR events
+     * (see TreeMetrics). Depth and comparisons are counted by the
+     * operation's own descent; while disabled each operation pays one null
+     * check
+     */
+    public void enableMetrics() {
+        metrics = new TreeMetrics("TreeAddDelete");
+    }
+    
+    /**
+     * Stop recording metrics and drop the collected values
+     */
+    public void disableMetrics() {
+        metrics = null;
+    }
+    
+    /**
+     * Metrics collected since enableMetrics, or null if disabled
+     */
+    public TreeMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Helper for metrics: report an operation with the depth and
+     * comparisons its own descent counted
+     */
+    private void record(TreeMetrics.Operation operation, int data, boolean hit, long start) {
+        long nanos = System.nanoTime() - start;
+        metrics.record(operation, data, hit, descentDepth, descentComparisons, nanos);
+    }
+    
+    /**
+     * Helper for metrics: the descents carry their counts in locals and
+     * parameters and hand them over here once, at the end; nothing is
+     * stored while metrics are disabled
+     */
+    private void countDescent(int depth, int comparisons) {
+        if (metrics != null) {
+            descentDepth = depth;
+            descentComparisons = comparisons;
+        }
+    }
+    
+    /**
+     * depth counts the nodes above node (for metrics)
+     */
+    private boolean searchRecursive(TreeNode node, int data, int depth) {
         if (node == null) {
+            countDescent(depth, 2 * depth);
             return false;
         }
         
         if (node.data == data) {
-            return true;
+            countDescent(depth + 1, 2 * depth + 1);
+            return !node.deleted;
         }
         
         if (data < node.data) {
-            return searchRecursive(node.left, data);
+            return searchRecursive(node.left, data, depth + 1);
         } else {
-            return searchRecursive(node.right, data);
+            return searchRecursive(node.right, data, depth + 1);
         }
     }
     
@@ -184,6 +666,17 @@ public class TreeAddDelete {
         return root;
     }
     
+    /**
+     * Print the outcome of a delete (kept out of delete itself)
+     */
+    private static void report(int data, boolean deleted) {
+        if (deleted) {
+            System.out.println("Deleted: " + data);
+        } else {
+            System.out.println("Value " + data + " not found in tree");
+        }
+    }
+    
     /**
      * Main method demonstrating add and delete operations
      */
@@ -209,27 +702,27 @@ public class TreeAddDelete {
         
         // Case 1: Delete a leaf node (10)
         System.out.println("\nCase 1: Delete leaf node (10)");
-        tree.delete(10);
+        report(10, tree.delete(10));
         tree.display();
         
         // Case 2: Delete a node with one child (20)
         System.out.println("\nCase 2: Delete node with one child (20)");
-        tree.delete(20);
+        report(20, tree.delete(20));
         tree.display();
         
         // Case 3: Delete a node with two children (30)
         System.out.println("\nCase 3: Delete node with two children (30)");
-        tree.delete(30);
+        report(30, tree.delete(30));
         tree.display();
         
         // Try to delete non-existent value
         System.out.println("\nAttempt to delete non-existent value (100):");
-        tree.delete(100);
+        report(100, tree.delete(100));
         tree.display();
         
         // Delete more nodes
         System.out.println("\nDelete root node (50):");
-        tree.delete(50);
+        report(50, tree.delete(50));
         tree.display();
         
         // Verify tree integrity with search
@@ -237,5 +730,99 @@ public class TreeAddDelete {
         System.out.println("Tree contains 70: " + tree.contains(70));
         System.out.println("Tree contains 30: " + tree.contains(30));
         System.out.println("Tree contains 40: " + tree.contains(40));
+        System.out.println("Tree size: " + tree.size());
+        
+        // BATCH OPERATIONS
+        System.out.println("\n--- BATCH Operations ---");
+        int added = tree.addAll(new int[] {65, 10, 90, 35, 70, 85, 10});
+        System.out.println("addAll [65, 10, 90, 35, 70, 85, 10] added " + added);
+        tree.display();
+        int deleted = tree.deleteAll(new int[] {90, 40, 100, 65});
+        System.out.println("deleteAll [90, 40, 100, 65] deleted " + deleted);
+        tree.display();
+        
+        // Batch versus per-key throughput
+        int n = 50_000;
+        int[] batch = new int[n];
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < n; i++) {
+            batch[i] = random.nextInt();
+        }
+        
+        long start = System.nanoTime();
+        TreeAddDelete perKey = new TreeAddDelete();
+        perKey.setQuiet(true);
+        for (int value : batch) {
+            perKey.add(value);
+        }
+        long perKeyNanos = System.nanoTime() - start;
+        
+        start = System.nanoTime();
+        TreeAddDelete batched = new TreeAddDelete();
+        batched.addAll(batch);
+        long batchNanos = System.nanoTime() - start;
+        
+        System.out.printf("%nInsert %d random keys: add() loop %d ms, addAll %d ms%n",
+                n, perKeyNanos / 1_000_000, batchNanos / 1_000_000);
+        
+        // LAZY DELETE MODE
+        System.out.println("\n--- LAZY DELETE Mode (compaction at 50% tombstones) ---");
+        TreeAddDelete lazy = new TreeAddDelete(true);
+        lazy.addAll(new int[] {50, 30, 70, 20, 40, 60, 80, 10});
+        lazy.delete(30);
+        lazy.delete(50);
+        lazy.delete(10);
+        lazy.display();
+        System.out.println("Size: " + lazy.size() + ", tombstones: " + lazy.getTombstoneCount());
+        lazy.delete(80);
+        System.out.println("Deleted 80 -> size: " + lazy.size() + ", tombstones: " + lazy.getTombstoneCount()
+                + " (compacted)");
+        lazy.display();
+        
+        // NODE POOL: allocation during delete/re-add churn
+        System.out.println("\n--- NODE POOL: delete/re-add churn ---");
+        System.out.printf("Without pool: %.1f bytes allocated per delete+add%n", churnAllocation(false));
+        System.out.printf("With pool:    %.1f bytes allocated per delete+add%n", churnAllocation(true));
+    }
+    
+    /**
+     * Measure heap allocated by the current thread per delete+add pair
+     * on a 100,000 node tree, after a warmup round
+     * 
+     * @return Bytes per pair, or -1 if the JVM cannot report allocation
+     */
+    private static double churnAllocation(boolean pooled) {
+        java.lang.management.ThreadMXBean bean = java.lang.management.ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        long threadId = Thread.currentThread().getId();
+        
+        int n = 100_000;
+        int[] keys = new int[n];
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt();
+        }
+        TreeAddDelete tree = new TreeAddDelete();
+        tree.setQuiet(true); // No "Added: " strings, so only node allocation is left
+        if (pooled) {
+            tree.enableNodePool(1024);
+        }
+        tree.addAll(keys);
+        
+        long bytes = 0;
+        int ops = 200_000;
+        for (int round = 0; round < 2; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < ops; i++) {
+                int key = keys[random.nextInt(n)];
+                tree.delete(key);
+                tree.add(key);
+            }
+            bytes = threads.getThreadAllocatedBytes(threadId) - before; // Keep the warm round
+        }
+        return (double) bytes / ops;
     }
 }
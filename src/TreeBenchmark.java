@@ -0,0 +1,870 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+public class TreeBenchmark {
+    
+    /*
+     * Micro-benchmark harness for every tree class in this folder.
+     * 
+     * Runs with the same plain javac/java setup as the other files:
+     * 
+     *   java -cp src TreeBenchmark [sizes=1000,10000,100000]
+     *        [distributions=random,sorted,skewed] [filter=TreeSearch]
+     *        [warmup=2] [iterations=5] [seed=42]
+     * 
+     * Methodology (modelled on JMH):
+     * - Every benchmark has an untimed setup that builds fresh state, so
+     *   mutating operations (insert, delete) are measured from the same
+     *   starting point in every iteration
+     * - Warmup iterations let the JIT compile the hot paths before the
+     *   measured iterations; results are mean and standard deviation
+     * - Results feed a sink that is printed at the end, so the JIT cannot
+     *   discard the work
+     * - Keys come from a seeded Random per (distribution, size), so runs
+     *   are reproducible
+     * - TreeSearch and TreeAddDelete run with setQuiet(true); for the other
+     *   classes System.out is swapped for a discarding stream while
+     *   measuring, so the string building done by operations that print is
+     *   still counted
+     * - A StackOverflowError (deep recursion on a degenerate tree) is
+     *   reported as a result instead of aborting the run
+     * 
+     * Very large sizes need a bigger heap, e.g. java -Xmx16g ... sizes=100000000
+     * 
+     * The same benchmarks also run under JMH (forks, warmup control,
+     * confidence intervals) from the jmh source set of the Gradle build;
+     * see jmh/trees/benchmark/TreeBenchmarks.java and scenario() below.
+     */
+    
+    /**
+     * Timed part of a benchmark
+     * 
+     * @return Number of operations performed (the ns/op denominator)
+     */
+    interface Op<T> {
+        long run(T state, int[] keys, int[] probes);
+    }
+    
+    static final class Benchmark<T> {
+        final String name;
+        final BiFunction<int[], int[], T> setup;
+        final Op<T> op;
+        
+        Benchmark(String name, BiFunction<int[], int[], T> setup, Op<T> op) {
+            this.name = name;
+            this.setup = setup;
+            this.op = op;
+        }
+    }
+    
+    private static final List<Benchmark<?>> BENCHMARKS = new ArrayList<>();
+    
+    private static final PrintStream CONSOLE = System.out;
+    private static final PrintStream DISCARD = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    });
+    
+    // Skew of the Zipf lookup benchmarks (see generateZipfProbes)
+    private static final double ZIPF_EXPONENT = 1.2;
+    
+    // Lookups per iteration for benchmarks with their own workload (Zipf,
+    // nearly sorted): enough for a self-adjusting tree to settle, and
+    // dense enough that consecutive sorted probes are close together
+    private static final int WORKLOAD_PROBES = 100_000;
+    
+    // Maximum probes per iteration for lookup and delete benchmarks
+    private static final int MAX_PROBES = 10_000;
+    
+    // Range queries per iteration, each covering ~1% of the key span
+    private static final int RANGE_QUERIES = 100;
+    
+    private static long sink;
+    
+    static void consume(long value) {
+        sink += value;
+    }
+    
+    static void consume(boolean value) {
+        sink += value ? 1 : 0;
+    }
+    
+    private static <T> void register(String name, BiFunction<int[], int[], T> setup, Op<T> op) {
+        BENCHMARKS.add(new Benchmark<>(name, setup, op));
+    }
+    
+    static {
+        registerBasicTree();
+        registerTreeAddDelete();
+        registerTreeSearch();
+        registerTreeSort();
+        registerTreeMerge();
+        registerTreeRecursion();
+        registerTreeTraversal();
+        registerEngines();
+    }
+    
+    // ---------------------------------------------------------------
+    // Benchmark definitions
+    // ---------------------------------------------------------------
+    
+    private static BasicTree basicTree(int[] keys, boolean balanced) {
+        BasicTree tree = new BasicTree(balanced);
+        for (int key : keys) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+    
+    private static void registerBasicTree() {
+        register("BasicTree.insert", (k, p) -> new BasicTree(), (tree, keys, probes) -> {
+            for (int key : keys) tree.insert(key);
+            return keys.length;
+        });
+        register("BasicTree.insert(AVL)", (k, p) -> new BasicTree(true), (tree, keys, probes) -> {
+            for (int key : keys) tree.insert(key);
+            return keys.length;
+        });
+        register("BasicTree.search", (k, p) -> basicTree(k, false), (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.search(probe));
+            return probes.length;
+        });
+        register("BasicTree.search(AVL)", (k, p) -> basicTree(k, true), (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.search(probe));
+            return probes.length;
+        });
+        register("BasicTree.inOrderTraversal", (k, p) -> basicTree(k, false), (tree, keys, probes) -> {
+            tree.inOrderTraversal(tree.getRoot());
+            return keys.length;
+        });
+        register("BasicTree.preOrderTraversal", (k, p) -> basicTree(k, false), (tree, keys, probes) -> {
+            tree.preOrderTraversal(tree.getRoot());
+            return keys.length;
+        });
+        register("BasicTree.postOrderTraversal", (k, p) -> basicTree(k, false), (tree, keys, probes) -> {
+            tree.postOrderTraversal(tree.getRoot());
+            return keys.length;
+        });
+    }
+    
+    private static TreeAddDelete quietAddDelete(boolean lazyDelete) {
+        TreeAddDelete tree = new TreeAddDelete(lazyDelete);
+        tree.setQuiet(true);
+        return tree;
+    }
+    
+    private static TreeAddDelete addDeleteTree(int[] keys) {
+        TreeAddDelete tree = quietAddDelete(false);
+        for (int key : keys) {
+            tree.add(key);
+        }
+        return tree;
+    }
+    
+    private static void registerTreeAddDelete() {
+        register("TreeAddDelete.add", (k, p) -> quietAddDelete(false), (tree, keys, probes) -> {
+            for (int key : keys) tree.add(key);
+            return keys.length;
+        });
+        register("TreeAddDelete.delete", (k, p) -> addDeleteTree(k), (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.delete(probe));
+            return probes.length;
+        });
+        register("TreeAddDelete.delete(lazy)", (k, p) -> {
+            TreeAddDelete tree = quietAddDelete(true);
+            tree.addAll(k);
+            return tree;
+        }, (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.delete(probe));
+            return probes.length;
+        });
+        register("TreeAddDelete.addAll", (k, p) -> quietAddDelete(false), (tree, keys, probes) -> {
+            consume(tree.addAll(keys));
+            return keys.length;
+        });
+        register("TreeAddDelete.deleteAll", (k, p) -> addDeleteTree(k), (tree, keys, probes) -> {
+            consume(tree.deleteAll(probes));
+            return probes.length;
+        });
+        register("TreeAddDelete.contains", (k, p) -> addDeleteTree(k), (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.contains(probe));
+            return probes.length;
+        });
+    }
+    
+    private static TreeSearch searchTree(int[] keys, boolean balanced) {
+        TreeSearch tree = new TreeSearch(balanced);
+        tree.setQuiet(true);
+        for (int key : keys) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+    
+    /**
+     * Tree plus a lookup workload of its own (instead of the shared probes)
+     */
+    static final class Lookups {
+        final TreeSearch tree;
+        final int[] probes;
+        
+        Lookups(TreeSearch tree, int[] probes) {
+            this.tree = tree;
+            this.probes = probes;
+        }
+    }
+    
+    private static Lookups zipfLookups(int[] keys, int count, boolean balanced, boolean selfAdjusting) {
+        TreeSearch tree = searchTree(keys, balanced);
+        tree.setSelfAdjusting(selfAdjusting);
+        int[] probes = generateZipfProbes(keys, count, ZIPF_EXPONENT, 42);
+        for (int probe : probes) {
+            consume(tree.contains(probe)); // Untimed pass: measure the settled (steady-state) shape
+        }
+        return new Lookups(tree, probes);
+    }
+    
+    private static Lookups nearlySortedLookups(int[] keys, int[] probes) {
+        return new Lookups(searchTree(keys, true), nearlySorted(generateProbes(keys, WORKLOAD_PROBES, 42), 42));
+    }
+    
+    /**
+     * Width of a range query: ~1% of the span of the key set
+     */
+    static int rangeWidth(int[] keys) {
+        long min = Integer.MAX_VALUE;
+        long max = Integer.MIN_VALUE;
+        for (int key : keys) {
+            min = Math.min(min, key);
+            max = Math.max(max, key);
+        }
+        return (int) Math.max(1, (max - min) / 100);
+    }
+    
+    /**
+     * Range upper bound, clamped so it cannot overflow past Integer.MAX_VALUE
+     */
+    static int rangeEnd(int start, int width) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) start + width);
+    }
+    
+    private static void registerTreeSearch() {
+        register("TreeSearch.binarySearchRecursive", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.binarySearchRecursive(probe));
+            return probes.length;
+        });
+        register("TreeSearch.binarySearchIterative", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.binarySearchIterative(probe));
+            return probes.length;
+        });
+        register("TreeSearch.contains", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.contains(probe));
+            return probes.length;
+        });
+        register("TreeSearch.contains(metrics)", (k, p) -> {
+            TreeSearch tree = searchTree(k, false);
+            tree.enableMetrics();
+            return tree;
+        }, (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.contains(probe));
+            return probes.length;
+        });
+        register("TreeSearch.contains(bloom)", (k, p) -> {
+            TreeSearch tree = searchTree(k, false);
+            tree.enableBloomFilter(0.01);
+            return tree;
+        }, (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.contains(probe));
+            return probes.length;
+        });
+        register("TreeSearch.contains(zipf)", (k, p) -> zipfLookups(k, WORKLOAD_PROBES, false, false),
+                (lookups, keys, probes) -> {
+            for (int probe : lookups.probes) consume(lookups.tree.contains(probe));
+            return lookups.probes.length;
+        });
+        register("TreeSearch.contains(zipf,AVL)", (k, p) -> zipfLookups(k, WORKLOAD_PROBES, true, false),
+                (lookups, keys, probes) -> {
+            for (int probe : lookups.probes) consume(lookups.tree.contains(probe));
+            return lookups.probes.length;
+        });
+        register("TreeSearch.contains(zipf,splay)", (k, p) -> zipfLookups(k, WORKLOAD_PROBES, false, true),
+                (lookups, keys, probes) -> {
+            for (int probe : lookups.probes) consume(lookups.tree.contains(probe));
+            return lookups.probes.length;
+        });
+        register("TreeSearch.contains(nearly sorted,AVL)", TreeBenchmark::nearlySortedLookups,
+                (lookups, keys, probes) -> {
+            for (int probe : lookups.probes) consume(lookups.tree.contains(probe));
+            return lookups.probes.length;
+        });
+        register("TreeSearch.cursor(nearly sorted,AVL)", TreeBenchmark::nearlySortedLookups,
+                (lookups, keys, probes) -> {
+            TreeSearch.Cursor cursor = lookups.tree.cursor();
+            for (int probe : lookups.probes) consume(cursor.search(probe));
+            return lookups.probes.length;
+        });
+        register("TreeSearch.containsAll", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            for (boolean hit : tree.containsAll(probes)) consume(hit);
+            return probes.length;
+        });
+        register("TreeSearch.findMinimum", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            for (int i = 0; i < probes.length; i++) consume(tree.findMinimum());
+            return probes.length;
+        });
+        register("TreeSearch.findMaximum", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            for (int i = 0; i < probes.length; i++) consume(tree.findMaximum());
+            return probes.length;
+        });
+        register("TreeSearch.rangeSearch", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            int width = rangeWidth(keys);
+            int queries = Math.min(RANGE_QUERIES, probes.length);
+            for (int i = 0; i < queries; i++) {
+                consume(tree.rangeSearch(probes[i], rangeEnd(probes[i], width)).size());
+            }
+            return queries;
+        });
+        register("TreeSearch.rangeIterator", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            int width = rangeWidth(keys);
+            int queries = Math.min(RANGE_QUERIES, probes.length);
+            for (int i = 0; i < queries; i++) {
+                java.util.PrimitiveIterator.OfInt range = tree.rangeIterator(probes[i], rangeEnd(probes[i], width));
+                while (range.hasNext()) consume(range.nextInt());
+            }
+            return queries;
+        });
+        register("TreeSearch.parallelRangeSearch(all)", (k, p) -> searchTree(k, true), (tree, keys, probes) -> {
+            consume(tree.parallelRangeSearch(Integer.MIN_VALUE, Integer.MAX_VALUE).length);
+            return 1;
+        });
+        register("TreeSearch.countInRange", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            int width = rangeWidth(keys);
+            int queries = Math.min(RANGE_QUERIES, probes.length);
+            for (int i = 0; i < queries; i++) {
+                consume(tree.countInRange(probes[i], rangeEnd(probes[i], width)));
+            }
+            return queries;
+        });
+        register("TreeSearch.findClosest", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.findClosest(probe));
+            return probes.length;
+        });
+        register("TreeSearch.floor", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.floor(probe).isPresent());
+            return probes.length;
+        });
+        register("TreeSearch.nearest(k=10)", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.nearest(probe, 10).length);
+            return probes.length;
+        });
+        register("TreeSearch.countInRange(AVL)", (k, p) -> searchTree(k, true), (tree, keys, probes) -> {
+            int width = rangeWidth(keys);
+            int queries = Math.min(RANGE_QUERIES, probes.length);
+            for (int i = 0; i < queries; i++) {
+                consume(tree.countInRange(probes[i], rangeEnd(probes[i], width)));
+            }
+            return queries;
+        });
+        register("TreeSearch.rangeSum(AVL)", (k, p) -> searchTree(k, true), (tree, keys, probes) -> {
+            int width = rangeWidth(keys);
+            int queries = Math.min(RANGE_QUERIES, probes.length);
+            for (int i = 0; i < queries; i++) {
+                consume(tree.rangeSum(probes[i], rangeEnd(probes[i], width)));
+            }
+            return queries;
+        });
+        register("TreeSearch.rank", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.rank(probe));
+            return probes.length;
+        });
+        register("TreeSearch.select", (k, p) -> searchTree(k, false), (tree, keys, probes) -> {
+            int n = tree.size();
+            for (int probe : probes) consume(tree.select(Math.floorMod(probe, n)));
+            return probes.length;
+        });
+    }
+    
+    private static void registerTreeSort() {
+        register("TreeSort.treeSort", (k, p) -> k.clone(), (array, keys, probes) -> {
+            consume(TreeSort.treeSort(array).length);
+            return keys.length;
+        });
+        register("TreeSort.reverseTreeSort", (k, p) -> k.clone(), (array, keys, probes) -> {
+            consume(TreeSort.reverseTreeSort(array).length);
+            return keys.length;
+        });
+    }
+    
+    /**
+     * Two trees holding the even- and odd-indexed keys
+     */
+    private static TreeMerge[] mergePair(int[] keys) {
+        TreeMerge first = new TreeMerge();
+        TreeMerge second = new TreeMerge();
+        for (int i = 0; i < keys.length; i++) {
+            (i % 2 == 0 ? first : second).insert(keys[i]);
+        }
+        return new TreeMerge[] {first, second};
+    }
+    
+    private static void registerTreeMerge() {
+        register("TreeMerge.mergeTreesMethod1", (k, p) -> mergePair(k), (pair, keys, probes) -> {
+            consume(TreeMerge.mergeTreesMethod1(pair[0], pair[1]).hashCode());
+            return keys.length;
+        });
+        register("TreeMerge.mergeTreesMethod2", (k, p) -> mergePair(k), (pair, keys, probes) -> {
+            consume(TreeMerge.mergeTreesMethod2(pair[0], pair[1]).hashCode());
+            return keys.length;
+        });
+        register("TreeMerge.mergeTreesMethod3", (k, p) -> mergePair(k), (pair, keys, probes) -> {
+            consume(TreeMerge.mergeTreesMethod3(pair[0], pair[1]).hashCode());
+            return keys.length;
+        });
+    }
+    
+    private static TreeRecursion recursionTree(int[] keys) {
+        TreeRecursion tree = new TreeRecursion();
+        for (int key : keys) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+    
+    private static void registerTreeRecursion() {
+        register("TreeRecursion.calculateHeight", (k, p) -> recursionTree(k), (tree, keys, probes) -> {
+            consume(tree.calculateHeight());
+            return keys.length;
+        });
+        register("TreeRecursion.calculateSum", (k, p) -> recursionTree(k), (tree, keys, probes) -> {
+            consume(tree.calculateSum());
+            return keys.length;
+        });
+        register("TreeRecursion.countNodes", (k, p) -> recursionTree(k), (tree, keys, probes) -> {
+            consume(tree.countNodes());
+            return keys.length;
+        });
+        register("TreeRecursion.findPathsWithSum", (k, p) -> recursionTree(k), (tree, keys, probes) -> {
+            consume(tree.findPathsWithSum(probes[0]).size());
+            return keys.length;
+        });
+        register("TreeRecursion.isBalanced", (k, p) -> recursionTree(k), (tree, keys, probes) -> {
+            consume(tree.isBalanced());
+            return keys.length;
+        });
+        register("TreeRecursion.cloneTree", (k, p) -> recursionTree(k), (tree, keys, probes) -> {
+            consume(tree.cloneTree().hashCode());
+            return keys.length;
+        });
+        register("TreeRecursion.inOrderTraversal", (k, p) -> recursionTree(k), (tree, keys, probes) -> {
+            tree.inOrderTraversal();
+            return keys.length;
+        });
+        register("TreeRecursion.preOrderTraversal", (k, p) -> recursionTree(k), (tree, keys, probes) -> {
+            tree.preOrderTraversal();
+            return keys.length;
+        });
+        register("TreeRecursion.postOrderTraversal", (k, p) -> recursionTree(k), (tree, keys, probes) -> {
+            tree.postOrderTraversal();
+            return keys.length;
+        });
+    }
+    
+    private static TreeTraversal traversalTree(int[] keys) {
+        TreeTraversal tree = new TreeTraversal();
+        for (int key : keys) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+    
+    private static void registerTreeTraversal() {
+        register("TreeTraversal.inOrderRecursive", (k, p) -> traversalTree(k), (tree, keys, probes) -> {
+            tree.inOrderRecursive();
+            return keys.length;
+        });
+        register("TreeTraversal.inOrderIterative", (k, p) -> traversalTree(k), (tree, keys, probes) -> {
+            tree.inOrderIterative();
+            return keys.length;
+        });
+        register("TreeTraversal.preOrderRecursive", (k, p) -> traversalTree(k), (tree, keys, probes) -> {
+            tree.preOrderRecursive();
+            return keys.length;
+        });
+        register("TreeTraversal.preOrderIterative", (k, p) -> traversalTree(k), (tree, keys, probes) -> {
+            tree.preOrderIterative();
+            return keys.length;
+        });
+        register("TreeTraversal.postOrderRecursive", (k, p) -> traversalTree(k), (tree, keys, probes) -> {
+            tree.postOrderRecursive();
+            return keys.length;
+        });
+        register("TreeTraversal.postOrderIterative", (k, p) -> traversalTree(k), (tree, keys, probes) -> {
+            tree.postOrderIterative();
+            return keys.length;
+        });
+        register("TreeTraversal.levelOrderTraversal", (k, p) -> traversalTree(k), (tree, keys, probes) -> {
+            tree.levelOrderTraversal();
+            return keys.length;
+        });
+        register("TreeTraversal.levelOrderByLevel", (k, p) -> traversalTree(k), (tree, keys, probes) -> {
+            consume(tree.levelOrderByLevel().size());
+            return keys.length;
+        });
+        register("TreeTraversal.depthFirstSearch", (k, p) -> traversalTree(k), (tree, keys, probes) -> {
+            tree.depthFirstSearch();
+            return keys.length;
+        });
+        register("TreeTraversal.verticalOrderTraversal", (k, p) -> traversalTree(k), (tree, keys, probes) -> {
+            consume(tree.verticalOrderTraversal().size());
+            return keys.length;
+        });
+    }
+    
+    /**
+     * Alternative engines, for comparison against the seven classes above
+     */
+    private static void registerEngines() {
+        register("ArrayTree.insert", (k, p) -> new ArrayTree(), (tree, keys, probes) -> {
+            for (int key : keys) tree.insert(key);
+            return keys.length;
+        });
+        register("ArrayTree.search", (k, p) -> {
+            ArrayTree tree = new ArrayTree(k.length);
+            for (int key : k) tree.insert(key);
+            return tree;
+        }, (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.search(probe));
+            return probes.length;
+        });
+        register("FrozenTree.search", (k, p) -> basicTree(k, true).freeze(), (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.search(probe));
+            return probes.length;
+        });
+        register("BlockTree.search(scalar)", (k, p) -> blockTree(k, false), (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.search(probe));
+            return probes.length;
+        });
+        if (BlockTree.isVectorScanAvailable()) {
+            register("BlockTree.search(vector)", (k, p) -> blockTree(k, true), (tree, keys, probes) -> {
+                for (int probe : probes) consume(tree.search(probe));
+                return probes.length;
+            });
+        }
+        register("BPlusTree.insert", (k, p) -> new BPlusTree(), (tree, keys, probes) -> {
+            for (int key : keys) tree.insert(key);
+            return keys.length;
+        });
+        register("BPlusTree.search", (k, p) -> {
+            BPlusTree tree = new BPlusTree();
+            for (int key : k) tree.insert(key);
+            return tree;
+        }, (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.search(probe));
+            return probes.length;
+        });
+        register("BPlusTree.rangeSearch", (k, p) -> {
+            BPlusTree tree = new BPlusTree();
+            for (int key : k) tree.insert(key);
+            return tree;
+        }, (tree, keys, probes) -> {
+            int width = rangeWidth(keys);
+            int queries = Math.min(RANGE_QUERIES, probes.length);
+            for (int i = 0; i < queries; i++) {
+                consume(tree.rangeSearch(probes[i], rangeEnd(probes[i], width)).size());
+            }
+            return queries;
+        });
+        register("ConcurrentTree.add", (k, p) -> new ConcurrentTree(), (tree, keys, probes) -> {
+            for (int key : keys) consume(tree.add(key));
+            return keys.length;
+        });
+        register("ConcurrentTree.contains", (k, p) -> {
+            ConcurrentTree tree = new ConcurrentTree();
+            for (int key : k) tree.add(key);
+            return tree;
+        }, (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.contains(probe));
+            return probes.length;
+        });
+        register("PersistentTree.add", (k, p) -> new PersistentTree(), (tree, keys, probes) -> {
+            for (int key : keys) consume(tree.add(key));
+            return keys.length;
+        });
+        register("PersistentTree.contains", (k, p) -> {
+            PersistentTree tree = new PersistentTree();
+            for (int key : k) tree.add(key);
+            return tree;
+        }, (tree, keys, probes) -> {
+            for (int probe : probes) consume(tree.contains(probe));
+            return probes.length;
+        });
+    }
+    
+    private static BlockTree blockTree(int[] keys, boolean vectorScan) {
+        int[] sorted = Arrays.stream(keys).sorted().distinct().toArray();
+        return new BlockTree(sorted, BlockTree.DEFAULT_BLOCK_SIZE, vectorScan);
+    }
+    
+    // ---------------------------------------------------------------
+    // Workload generation
+    // ---------------------------------------------------------------
+    
+    /**
+     * Generate keys for a distribution
+     * 
+     * random - uniform over the int range
+     * sorted - 0, 1, 2, ... (worst case for an unbalanced BST)
+     * skewed - ascending with 10% of positions swapped at random: long
+     *          sorted runs, the typical "mostly ordered" feed
+     */
+    static int[] generateKeys(String distribution, int size, long seed) {
+        Random random = new Random(seed);
+        int[] keys = new int[size];
+        switch (distribution) {
+            case "random":
+                for (int i = 0; i < size; i++) {
+                    keys[i] = random.nextInt();
+                }
+                break;
+            case "sorted":
+                for (int i = 0; i < size; i++) {
+                    keys[i] = i;
+                }
+                break;
+            case "skewed":
+                for (int i = 0; i < size; i++) {
+                    keys[i] = i;
+                }
+                for (int i = 0; i < size / 10; i++) {
+                    int a = random.nextInt(size);
+                    int b = random.nextInt(size);
+                    int tmp = keys[a];
+                    keys[a] = keys[b];
+                    keys[b] = tmp;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        }
+        return keys;
+    }
+    
+    /**
+     * Lookup probes: half drawn from the key set (hits), half random (mostly misses)
+     */
+    static int[] generateProbes(int[] keys, long seed) {
+        return generateProbes(keys, Math.min(keys.length, MAX_PROBES), seed);
+    }
+    
+    static int[] generateProbes(int[] keys, int count, long seed) {
+        Random random = new Random(seed ^ 0x5DEECE66DL);
+        int[] probes = new int[count];
+        for (int i = 0; i < count; i++) {
+            probes[i] = i % 2 == 0 ? keys[random.nextInt(keys.length)] : random.nextInt();
+        }
+        return probes;
+    }
+    
+    /**
+     * Lookups where the key of popularity rank r is requested with
+     * probability proportional to 1 / r^exponent. Ranks are assigned to
+     * keys at random, so the hot keys are scattered through the tree.
+     * With exponent 1.2 and 100,000 keys, 1% of the keys receive about
+     * 85% of the lookups.
+     */
+    static int[] generateZipfProbes(int[] keys, int count, double exponent, long seed) {
+        Random random = new Random(seed);
+        int[] byRank = keys.clone();
+        for (int i = byRank.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = byRank[i];
+            byRank[i] = byRank[j];
+            byRank[j] = tmp;
+        }
+        
+        // Inverse-CDF sampling over the cumulative weights
+        double[] cumulative = new double[byRank.length];
+        double total = 0;
+        for (int r = 0; r < byRank.length; r++) {
+            total += 1 / Math.pow(r + 1, exponent);
+            cumulative[r] = total;
+        }
+        int[] probes = new int[count];
+        for (int i = 0; i < count; i++) {
+            int r = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            probes[i] = byRank[Math.min(r < 0 ? -r - 1 : r, byRank.length - 1)];
+        }
+        return probes;
+    }
+    
+    /**
+     * Probes in ascending order with 10% of them swapped with a neighbour
+     * up to 8 places away: the "mostly ordered" lookup stream
+     */
+    static int[] nearlySorted(int[] probes, long seed) {
+        Random random = new Random(seed);
+        int[] sorted = probes.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length / 10; i++) {
+            int a = random.nextInt(sorted.length);
+            int b = Math.min(sorted.length - 1, a + 1 + random.nextInt(8));
+            int tmp = sorted[a];
+            sorted[a] = sorted[b];
+            sorted[b] = tmp;
+        }
+        return sorted;
+    }
+    
+    // ---------------------------------------------------------------
+    // Runner
+    // ---------------------------------------------------------------
+    
+    /**
+     * One benchmark for an external harness (the JMH source set): the
+     * keys and probes are generated once, as main() does with the same
+     * seed; each get() then does the untimed setup on fresh state and
+     * returns the timed part, which returns its operation count. Only JDK
+     * types appear in the signature, because classes in a named package
+     * cannot refer to this one.
+     * 
+     * @throws IllegalArgumentException if no benchmark has that name
+     */
+    public static java.util.function.Supplier<java.util.function.LongSupplier> scenario(
+            String name, String distribution, int size, long seed) {
+        for (Benchmark<?> benchmark : BENCHMARKS) {
+            if (benchmark.name.equals(name)) {
+                long workloadSeed = seed * 31 + size;
+                int[] keys = generateKeys(distribution, size, workloadSeed);
+                int[] probes = generateProbes(keys, workloadSeed);
+                return () -> bind(benchmark, keys, probes);
+            }
+        }
+        throw new IllegalArgumentException("Unknown benchmark: " + name);
+    }
+    
+    private static <T> java.util.function.LongSupplier bind(Benchmark<T> benchmark, int[] keys, int[] probes) {
+        T state = benchmark.setup.apply(keys, probes);
+        return () -> benchmark.op.run(state, keys, probes);
+    }
+    
+    /**
+     * Run one benchmark: warmup, then measured iterations
+     * 
+     * @return Per-iteration ns/op, or null if the tree overflowed the stack
+     */
+    private static <T> double[] measure(Benchmark<T> benchmark, int[] keys, int[] probes,
+                                        int warmup, int iterations) {
+        double[] results = new double[iterations];
+        System.setOut(DISCARD);
+        try {
+            for (int i = 0; i < warmup + iterations; i++) {
+                T state = benchmark.setup.apply(keys, probes);
+                long start = System.nanoTime();
+                long ops = benchmark.op.run(state, keys, probes);
+                long nanos = System.nanoTime() - start;
+                if (i >= warmup) {
+                    results[i - warmup] = (double) nanos / Math.max(1, ops);
+                }
+            }
+        } catch (StackOverflowError e) {
+            return null;
+        } finally {
+            System.setOut(CONSOLE);
+        }
+        return results;
+    }
+    
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+    
+    private static double stddev(double[] values) {
+        double mean = mean(values);
+        double sum = 0;
+        for (double value : values) {
+            sum += (value - mean) * (value - mean);
+        }
+        return values.length > 1 ? Math.sqrt(sum / (values.length - 1)) : 0;
+    }
+    
+    private static int[] parseSizes(String value) {
+        String[] parts = value.split(",");
+        int[] sizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            sizes[i] = Integer.parseInt(parts[i].trim().replace("_", ""));
+        }
+        return sizes;
+    }
+    
+    /**
+     * Main method: parse key=value arguments and run the selected benchmarks
+     */
+    public static void main(String[] args) {
+        int[] sizes = {1_000, 10_000, 100_000};
+        String[] distributions = {"random", "sorted", "skewed"};
+        String filter = "";
+        int warmup = 2;
+        int iterations = 5;
+        long seed = 42;
+        
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "sizes": sizes = parseSizes(value); break;
+                case "distributions": distributions = value.split(","); break;
+                case "filter": filter = value; break;
+                case "warmup": warmup = Integer.parseInt(value); break;
+                case "iterations": iterations = Integer.parseInt(value); break;
+                case "seed": seed = Long.parseLong(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+        
+        System.out.println("=== Tree Benchmarks ===");
+        System.out.println("sizes=" + Arrays.toString(sizes) + " distributions=" + Arrays.toString(distributions)
+                + " warmup=" + warmup + " iterations=" + iterations + " seed=" + seed + "\n");
+        System.out.printf("%-42s %-8s %11s %14s %12s%n", "Benchmark", "Dist", "Size", "ns/op", "+/-");
+        
+        for (String distribution : distributions) {
+            for (int size : sizes) {
+                long workloadSeed = seed * 31 + size;
+                int[] keys = generateKeys(distribution, size, workloadSeed);
+                int[] probes = generateProbes(keys, workloadSeed);
+                
+                for (Benchmark<?> benchmark : BENCHMARKS) {
+                    if (!benchmark.name.contains(filter)) {
+                        continue;
+                    }
+                    double[] results = measure(benchmark, keys, probes, warmup, iterations);
+                    if (results == null) {
+                        System.out.printf("%-42s %-8s %,11d %14s%n", benchmark.name, distribution, size,
+                                "stack overflow");
+                    } else {
+                        System.out.printf("%-42s %-8s %,11d %,14.1f %12.1f%n", benchmark.name, distribution, size,
+                                mean(results), stddev(results));
+                    }
+                }
+            }
+        }
+        
+        System.out.println("\n(sink: " + sink + ")");
+    }
+}
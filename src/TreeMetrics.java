@@ -0,0 +1,337 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+public class TreeMetrics {
+    
+    /*
+     * Per-operation counters for a tree: operation count, hits, descent
+     * depth (nodes visited), key comparisons and a latency histogram.
+     * 
+     * Trees keep a TreeMetrics reference that is null until metrics are
+     * enabled, so the disabled cost is one null check per operation: the
+     * descents carry depth and comparisons in locals and only store them
+     * while metrics are enabled. While enabled, every recorded operation
+     * is also offered to JDK Flight Recorder as a trees.TreeOperation
+     * event if a recording has that event turned on, e.g.
+     * 
+     *   java -XX:StartFlightRecording=filename=trees.jfr -cp src TreeMetrics
+     * 
+     * Not thread-safe, like the trees that use it.
+     */
+    public enum Operation {
+        LOOKUP, INSERT, DELETE
+    }
+    
+    /**
+     * Flight Recorder event for one tree operation
+     */
+    @Name("trees.TreeOperation")
+    @Label("Tree Operation")
+    @Category("Trees")
+    @Description("A lookup, insert or delete on a tree with metrics enabled")
+    static final class OperationEvent extends Event {
+        @Label("Tree")
+        String tree;
+        
+        @Label("Operation")
+        String operation;
+        
+        @Label("Key")
+        int key;
+        
+        @Label("Hit")
+        @Description("Key found (lookup), added (insert) or removed (delete)")
+        boolean hit;
+        
+        @Label("Depth")
+        int depth;
+        
+        @Label("Comparisons")
+        int comparisons;
+        
+        @Label("Latency")
+        @Timespan(Timespan.NANOSECONDS)
+        long latency;
+    }
+    
+    // Looked up once, so begin() can ask whether any recording wants the
+    // event without allocating one
+    private static final EventType OPERATION_EVENT_TYPE = EventType.getEventType(OperationEvent.class);
+    
+    /**
+     * Log-linear latency histogram: exact below 16 ns, then 16 buckets per
+     * power of two (about 6% resolution) up to Long.MAX_VALUE, in a fixed
+     * array, so recording never allocates
+     */
+    static final class LatencyHistogram {
+        private static final int SUB_BUCKETS = 16;
+        private final long[] counts = new long[64 * SUB_BUCKETS];
+        private long total;
+        private long max;
+        
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            counts[index(value)]++;
+            total++;
+            max = Math.max(max, value);
+        }
+        
+        private static int index(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - 4)) & (SUB_BUCKETS - 1);
+            return (exponent - 3) * SUB_BUCKETS + sub;
+        }
+        
+        /**
+         * Largest value that falls into a bucket
+         */
+        private static long upperBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int exponent = index / SUB_BUCKETS + 3;
+            long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - 4);
+            return lower + (1L << (exponent - 4)) - 1;
+        }
+        
+        /**
+         * Value at a percentile (upper edge of its bucket, capped at the
+         * largest value recorded), or 0 if nothing was recorded
+         */
+        long percentile(double p) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(p / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+        
+        void reset() {
+            java.util.Arrays.fill(counts, 0);
+            total = 0;
+            max = 0;
+        }
+    }
+    
+    private final String treeName;
+    private final long[] counts = new long[Operation.values().length];
+    private final long[] hits = new long[counts.length];
+    private final long[] depths = new long[counts.length];
+    private final long[] comparisons = new long[counts.length];
+    private final LatencyHistogram[] latencies = new LatencyHistogram[counts.length];
+    private OperationEvent pendingEvent; // Begun by begin(), committed by record()
+    
+    /**
+     * @param treeName Name reported in the summary and in JFR events
+     */
+    public TreeMetrics(String treeName) {
+        this.treeName = treeName;
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+    
+    /**
+     * Mark the start of an operation: begins a trees.TreeOperation event
+     * if a recording has it enabled (nothing is allocated otherwise)
+     * 
+     * @return System.nanoTime(), the start for the latency passed to record()
+     */
+    public long begin() {
+        if (OPERATION_EVENT_TYPE.isEnabled()) {
+            pendingEvent = new OperationEvent();
+            pendingEvent.begin();
+        } else {
+            pendingEvent = null;
+        }
+        return System.nanoTime();
+    }
+    
+    /**
+     * Record one operation; commits the JFR event begun by begin(), if
+     * any, when the recording's threshold lets it through
+     * 
+     * @param operation Kind of operation
+     * @param key Key the operation was called with
+     * @param hit Found (lookup), added (insert) or removed (delete)
+     * @param depth Nodes visited by the descent
+     * @param comparisons Key comparisons made by the descent
+     * @param nanos Latency of the operation
+     */
+    public void record(Operation operation, int key, boolean hit, int depth, int comparisons, long nanos) {
+        int i = operation.ordinal();
+        counts[i]++;
+        if (hit) {
+            hits[i]++;
+        }
+        depths[i] += depth;
+        this.comparisons[i] += comparisons;
+        latencies[i].record(nanos);
+        
+        OperationEvent event = pendingEvent;
+        if (event != null) {
+            pendingEvent = null;
+            event.end();
+            if (event.shouldCommit()) {
+                event.tree = treeName;
+                event.operation = operation.name();
+                event.key = key;
+                event.hit = hit;
+                event.depth = depth;
+                event.comparisons = comparisons;
+                event.latency = nanos;
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * Number of operations of a kind recorded since the last reset
+     */
+    public long getCount(Operation operation) {
+        return counts[operation.ordinal()];
+    }
+    
+    /**
+     * Operations of a kind that found, added or removed their key
+     */
+    public long getHits(Operation operation) {
+        return hits[operation.ordinal()];
+    }
+    
+    /**
+     * Mean nodes visited per operation
+     */
+    public double getMeanDepth(Operation operation) {
+        long count = getCount(operation);
+        return count == 0 ? 0 : (double) depths[operation.ordinal()] / count;
+    }
+    
+    /**
+     * Mean key comparisons per operation
+     */
+    public double getMeanComparisons(Operation operation) {
+        long count = getCount(operation);
+        return count == 0 ? 0 : (double) comparisons[operation.ordinal()] / count;
+    }
+    
+    /**
+     * Latency percentile in nanoseconds, e.g. 50, 99 or 99.9
+     */
+    public long getLatencyPercentile(Operation operation, double percentile) {
+        return latencies[operation.ordinal()].percentile(percentile);
+    }
+    
+    /**
+     * Clear all counters and histograms
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+            hits[i] = 0;
+            depths[i] = 0;
+            comparisons[i] = 0;
+            latencies[i].reset();
+        }
+    }
+    
+    /**
+     * One line per operation kind that has been recorded
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder(treeName + " metrics:");
+        for (Operation operation : Operation.values()) {
+            long count = getCount(operation);
+            if (count == 0) {
+                continue;
+            }
+            report.append(String.format("%n  %-6s count %,d, hits %,d, depth %.1f, comparisons %.1f, "
+                    + "latency p50 %,d ns, p99 %,d ns, p99.9 %,d ns",
+                    operation, count, getHits(operation), getMeanDepth(operation),
+                    getMeanComparisons(operation), getLatencyPercentile(operation, 50),
+                    getLatencyPercentile(operation, 99), getLatencyPercentile(operation, 99.9)));
+        }
+        return report.toString();
+    }
+    
+    /**
+     * Main method instrumenting TreeSearch and TreeAddDelete under a
+     * random workload
+     */
+    public static void main(String[] args) {
+        System.out.println("=== Tree Metrics ===\n");
+        
+        int n = 200_000;
+        java.util.Random random = new java.util.Random(42);
+        
+        TreeSearch search = new TreeSearch(true);
+        search.setQuiet(true);
+        search.enableMetrics();
+        TreeAddDelete addDelete = new TreeAddDelete();
+        addDelete.setQuiet(true);
+        addDelete.enableMetrics();
+        
+        for (int i = 0; i < n; i++) {
+            int key = random.nextInt(2 * n);
+            search.insert(key);
+            addDelete.add(key);
+        }
+        for (int i = 0; i < n; i++) {
+            int key = random.nextInt(2 * n);
+            search.binarySearchIterative(key);
+            addDelete.contains(key);
+            if (i % 4 == 0) {
+                search.delete(key);
+                addDelete.delete(key);
+            }
+        }
+        
+        System.out.println(search.getMetrics().report());
+        System.out.println();
+        System.out.println(addDelete.getMetrics().report());
+        
+        // Overhead: the same lookups with metrics off and on
+        int[] probes = new int[n];
+        for (int i = 0; i < n; i++) {
+            probes[i] = random.nextInt(2 * n);
+        }
+        System.out.println();
+        for (int round = 0; round < 3; round++) {
+            search.disableMetrics();
+            long offNanos = timeLookups(search, probes);
+            search.enableMetrics();
+            long onNanos = timeLookups(search, probes);
+            System.out.printf("Round %d: metrics off %.1f ns/lookup, on %.1f ns/lookup%n",
+                    round + 1, (double) offNanos / n, (double) onNanos / n);
+        }
+    }
+    
+    private static long timeLookups(TreeSearch tree, int[] probes) {
+        long start = System.nanoTime();
+        int found = 0;
+        for (int probe : probes) {
+            if (tree.binarySearchIterative(probe)) {
+                found++;
+            }
+        }
+        if (found < 0) {
+            System.out.println(found); // Keep the loop from being optimised away
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -4,42 +4,537 @@ public class TreeSearch {
         int data;
         TreeNode left;
         TreeNode right;
+        int size;   // Nodes in this subtree (order-statistic augmentation)
+        int height; // Leaf = 1; used for rebalancing in self-balancing mode
+        long sum;   // Sum of the values in this subtree (long: no int overflow)
         
         TreeNode(int data) {
             this.data = data;
             this.left = null;
             this.right = null;
+            this.size = 1;
+            this.height = 1;
+            this.sum = data;
         }
     }
     
     private TreeNode root;
+    private final boolean selfBalancing;
+    
+    // Optional Bloom filter in front of point lookups (null when disabled)
+    private static final int MIN_FILTER_CAPACITY = 1024;
+    private BloomFilter filter;
+    private double filterFalsePositiveRate;
+    private int filterCapacity;  // Keys the current filter was sized for
+    private int filterKeys;      // Keys added since the last rebuild
+    private int filterStaleKeys; // Of those, keys since deleted from the tree
+    private int filterRebuilds;
+    private long filterQueries;
+    private long filterRejections;
+    private long filterFalsePositives;
+    
+    // Self-adjusting mode: every SPLAY_INTERVAL-th lookup that ends deeper
+    // than a perfectly balanced tree would be splays its node to the root
+    private static final int SPLAY_INTERVAL = 4;
+    private boolean selfAdjusting;
+    private int deepLookups;
+    private TreeNode[] splayPath; // Reused descent stack for splay
+    
+    private int modCount; // Structural changes, checked by cursors
+    
+    // Nodes visited and key comparisons by the last insert, delete or
+    // lookup descent; stored only while metrics are enabled
+    private int descentDepth;
+    private int descentComparisons;
+    
+    private boolean quiet;      // true = no console output from searches
+    private TreeMetrics metrics; // null when metrics are disabled
     
     public TreeSearch() {
+        this(false);
+    }
+    
+    /**
+     * Constructor choosing the insert/delete engine
+     * When selfBalancing is true the tree is kept as an AVL tree (as in
+     * BasicTree), so every O(h) query below is O(log n) guaranteed
+     * 
+     * @param selfBalancing true for AVL updates, false for a plain BST
+     */
+    public TreeSearch(boolean selfBalancing) {
         this.root = null;
+        this.selfBalancing = selfBalancing;
     }
     
     /**
      * Insert a value into the BST
-     * Time Complexity: O(log n) average
+     * Subtree sizes are updated on the way back up
+     * Time Complexity: O(log n) average, O(log n) guaranteed when self-balancing
      */
     public void insert(int data) {
-        root = insertRecursive(root, data);
+        if (metrics == null) {
+            insertValue(data);
+            return;
+        }
+        long start = metrics.begin();
+        boolean added = insertValue(data);
+        record(TreeMetrics.Operation.INSERT, data, added, start);
     }
     
-    private TreeNode insertRecursive(TreeNode node, int data) {
+    private boolean insertValue(int data) {
+        int before = size();
+        root = insertRecursive(root, data, 0, 0);
+        if (size() == before) {
+            return false;
+        }
+        modCount++;
+        if (filter != null) {
+            filter.add(data);
+            if (++filterKeys > filterCapacity) {
+                rebuildBloomFilter(); // Outgrown: false-positive rate would climb
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * depth and comparisons count the nodes and key tests above node, for
+     * metrics (see countDescent)
+     */
+    private TreeNode insertRecursive(TreeNode node, int data, int depth, int comparisons) {
         if (node == null) {
+            countDescent(depth, comparisons);
             return new TreeNode(data);
         }
         
         if (data < node.data) {
-            node.left = insertRecursive(node.left, data);
+            node.left = insertRecursive(node.left, data, depth + 1, comparisons + 1);
+        } else if (data > node.data) {
+            node.right = insertRecursive(node.right, data, depth + 1, comparisons + 2);
+        } else {
+            // Duplicate: nothing changed below
+            countDescent(depth + 1, comparisons + 2);
+            return node;
+        }
+        
+        return fixUp(node);
+    }
+    
+    /**
+     * Delete a value from the BST
+     * Two-children case copies in the in-order successor, as in TreeAddDelete
+     * Time Complexity: O(log n) average, O(log n) guaranteed when self-balancing
+     * 
+     * @param data The value to delete
+     * @return true if deleted, false if not found
+     */
+    public boolean delete(int data) {
+        if (metrics == null) {
+            return deleteValue(data);
+        }
+        long start = metrics.begin();
+        boolean deleted = deleteValue(data);
+        record(TreeMetrics.Operation.DELETE, data, deleted, start);
+        return deleted;
+    }
+    
+    private boolean deleteValue(int data) {
+        int before = size();
+        root = deleteRecursive(root, data, 0, 0);
+        if (size() == before) {
+            return false;
+        }
+        modCount++;
+        if (filter != null && ++filterStaleKeys * 4 > filterKeys) {
+            rebuildBloomFilter(); // Over a quarter of its keys are gone
+        }
+        return true;
+    }
+    
+    private TreeNode deleteRecursive(TreeNode node, int data, int depth, int comparisons) {
+        if (node == null) {
+            countDescent(depth, comparisons);
+            return null;
+        }
+        
+        if (data < node.data) {
+            node.left = deleteRecursive(node.left, data, depth + 1, comparisons + 1);
         } else if (data > node.data) {
-            node.right = insertRecursive(node.right, data);
+            node.right = deleteRecursive(node.right, data, depth + 1, comparisons + 2);
+        } else {
+            if (node.left == null || node.right == null) {
+                countDescent(depth + 1, comparisons + 2);
+                return node.left == null ? node.right : node.left;
+            }
+            TreeNode successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.data = successor.data;
+            // The successor's descent continues this one in the counts
+            node.right = deleteRecursive(node.right, successor.data, depth + 1, comparisons + 2);
+        }
+        
+        return fixUp(node);
+    }
+    
+    /**
+     * Recompute a node's augmented fields after its children changed, then
+     * restore the AVL property if self-balancing
+     */
+    private TreeNode fixUp(TreeNode node) {
+        update(node);
+        if (!selfBalancing) {
+            return node;
         }
         
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
         return node;
     }
     
+    private TreeNode rotateRight(TreeNode node) {
+        TreeNode newRoot = node.left;
+        node.left = newRoot.right;
+        newRoot.right = node;
+        update(node);
+        update(newRoot);
+        return newRoot;
+    }
+    
+    private TreeNode rotateLeft(TreeNode node) {
+        TreeNode newRoot = node.right;
+        node.right = newRoot.left;
+        newRoot.left = node;
+        update(node);
+        update(newRoot);
+        return newRoot;
+    }
+    
+    private static void update(TreeNode node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.sum = node.data + sum(node.left) + sum(node.right);
+    }
+    
+    private static long sum(TreeNode node) {
+        return node == null ? 0 : node.sum;
+    }
+    
+    private static int size(TreeNode node) {
+        return node == null ? 0 : node.size;
+    }
+    
+    private static int height(TreeNode node) {
+        return node == null ? 0 : node.height;
+    }
+    
+    /**
+     * Turn self-adjusting lookups on or off (plain BST mode only)
+     * 
+     * While on, lookups (binarySearch*, contains) move frequently
+     * requested keys toward the root with splay rotations, so under a
+     * skewed workload the hot keys end up a few levels deep and cost
+     * fewer node visits (and cache misses) than in a static tree.
+     * 
+     * Restructuring is bounded: only lookups that end deeper than a
+     * perfectly balanced tree of the same size (floor(log2 n) + 1 levels)
+     * are candidates, and only every SPLAY_INTERVAL-th
+     * candidate splays its node (the key, or the last node on the path if
+     * the key is absent) to the root. A hot key is requested often, so it
+     * is still promoted after a few lookups, while one-off lookups of cold
+     * keys mostly leave the tree alone. Splaying on every lookup halved
+     * the mean depth on a Zipf workload but was slower than not splaying,
+     * because of the rotations paid by the cold keys.
+     * 
+     * Lookups then modify the tree, so even read-only use needs external
+     * locking when shared between threads.
+     * 
+     * Time Complexity: O(h) per lookup plus O(depth) for a splay; like any
+     * plain BST, h can reach O(n) for unlucky access orders
+     * 
+     * @throws IllegalStateException if the tree is self-balancing (AVL)
+     */
+    public void setSelfAdjusting(boolean selfAdjusting) {
+        if (selfAdjusting && selfBalancing) {
+            throw new IllegalStateException("Self-adjusting lookups need a plain BST, not an AVL tree");
+        }
+        this.selfAdjusting = selfAdjusting;
+    }
+    
+    /**
+     * Helper for self-adjusting mode: splay after a lookup whose descent
+     * visited depth nodes
+     */
+    private void adjust(int data, int depth) {
+        if (selfAdjusting && depth > balancedHeight() && ++deepLookups % SPLAY_INTERVAL == 0) {
+            splay(data);
+        }
+    }
+    
+    /**
+     * Helper for the lookups: count a descent that made one equality test
+     * per node and one direction test per node it left, then give
+     * self-adjusting mode its chance to splay
+     */
+    private void endDescent(int data, int depth, boolean found) {
+        countDescent(depth, found ? 2 * depth - 1 : 2 * depth);
+        adjust(data, depth);
+    }
+    
+    /**
+     * Helper for metrics: the descents carry their counts in locals and
+     * parameters and hand them over here once, at the end; nothing is
+     * stored while metrics are disabled
+     */
+    private void countDescent(int depth, int comparisons) {
+        if (metrics != null) {
+            descentDepth = depth;
+            descentComparisons = comparisons;
+        }
+    }
+    
+    /**
+     * Height of a perfectly balanced tree with size() nodes
+     */
+    private int balancedHeight() {
+        return 32 - Integer.numberOfLeadingZeros(size());
+    }
+    
+    /**
+     * Bottom-up splay: bring the node holding data (or the last node on
+     * its search path) to the root by zig-zig / zig-zag rotation pairs
+     * 
+     * The path is kept on an explicit stack instead of parent pointers or
+     * recursion, because splay trees can temporarily be very deep. The
+     * rotations keep size, height and sum up to date; nodes above the
+     * rotated pair keep the same key set, so nothing else changes.
+     * 
+     * Time Complexity: O(depth)
+     * Space Complexity: O(h), reused between calls
+     */
+    private void splay(int data) {
+        modCount++;
+        if (splayPath == null || splayPath.length < height(root)) {
+            splayPath = new TreeNode[Math.max(64, 2 * height(root))];
+        }
+        TreeNode[] path = splayPath;
+        int top = -1;
+        TreeNode current = root;
+        while (current != null) {
+            path[++top] = current;
+            if (current.data == data) {
+                break;
+            }
+            current = data < current.data ? current.left : current.right;
+        }
+        
+        int length = top + 1;
+        TreeNode node = path[top];
+        while (top > 0) {
+            TreeNode parent = path[top - 1];
+            TreeNode subtree;
+            if (top == 1) {
+                // Zig: parent is the root
+                subtree = parent.left == node ? rotateRight(parent) : rotateLeft(parent);
+                top = 0;
+            } else {
+                TreeNode grandparent = path[top - 2];
+                boolean nodeLeft = parent.left == node;
+                boolean parentLeft = grandparent.left == parent;
+                if (nodeLeft == parentLeft) {
+                    // Zig-zig: rotate the grandparent first, then the parent
+                    subtree = parentLeft ? rotateRight(rotateRight(grandparent))
+                                         : rotateLeft(rotateLeft(grandparent));
+                } else if (parentLeft) {
+                    // Zig-zag: node is a right child of a left child
+                    grandparent.left = rotateLeft(parent);
+                    subtree = rotateRight(grandparent);
+                } else {
+                    grandparent.right = rotateRight(parent);
+                    subtree = rotateLeft(grandparent);
+                }
+                top -= 2;
+            }
+            
+            // Hang the rotated subtree where the old top of the pair was
+            if (top == 0) {
+                root = subtree;
+            } else if (path[top - 1].left == path[top]) {
+                path[top - 1].left = subtree;
+            } else {
+                path[top - 1].right = subtree;
+            }
+            path[top] = subtree;
+        }
+        java.util.Arrays.fill(path, 0, length, null); // Don't keep deleted nodes reachable
+    }
+    
+    /**
+     * Get the number of values in the tree
+     * Time Complexity: O(1)
+     */
+    public int size() {
+        return size(root);
+    }
+    
+    /**
+     * Turn console output from the search methods off (true) or on
+     * With quiet set, binarySearch*, findMinimum, findMaximum and
+     * findClosest print nothing and build no message strings
+     */
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+    
+    /**
+     * Start recording metrics for lookups (binarySearch*, contains),
+     * inserts and deletes: counts, descent depth, comparisons and latency
+     * percentiles, plus JFR events (see TreeMetrics)
+     * Depth and comparisons are counted by the operation's own descent;
+     * while disabled (the default) each operation pays one null check
+     */
+    public void enableMetrics() {
+        metrics = new TreeMetrics("TreeSearch");
+    }
+    
+    /**
+     * Stop recording metrics and drop the collected values
+     */
+    public void disableMetrics() {
+        metrics = null;
+    }
+    
+    /**
+     * Metrics collected since enableMetrics, or null if disabled
+     */
+    public TreeMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Helper for metrics: report an operation with the depth and
+     * comparisons its own descent counted
+     */
+    private void record(TreeMetrics.Operation operation, int data, boolean hit, long start) {
+        long nanos = System.nanoTime() - start;
+        metrics.record(operation, data, hit, descentDepth, descentComparisons, nanos);
+    }
+    
+    /**
+     * Put a Bloom filter in front of the point lookups (binarySearch*,
+     * contains, containsAll). Most lookups of absent keys are then
+     * rejected after a few hash probes instead of a root-to-leaf walk;
+     * present keys still take the normal descent.
+     * 
+     * The filter is updated on insert. Bloom filters cannot forget keys,
+     * so it is rebuilt once a quarter of its keys have been deleted, and
+     * also when the tree outgrows the size it was built for.
+     * 
+     * Time Complexity: O(n) to build, O(1) amortized per insert/delete
+     * 
+     * @param falsePositiveRate Target share of absent keys that still pass, 0 < p < 1
+     */
+    public void enableBloomFilter(double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False-positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        this.filterFalsePositiveRate = falsePositiveRate;
+        this.filterRebuilds = -1; // The initial build is not a rebuild
+        this.filterQueries = 0;
+        this.filterRejections = 0;
+        this.filterFalsePositives = 0;
+        buildBloomFilter();
+    }
+    
+    /**
+     * Remove the Bloom filter; lookups go straight to the tree again
+     */
+    public void disableBloomFilter() {
+        filter = null;
+    }
+    
+    /**
+     * Rebuild the Bloom filter from the keys currently in the tree, with
+     * room for 25% growth (the target rate is reached when it is full)
+     * Does nothing while the filter is disabled
+     * Time Complexity: O(n)
+     */
+    public void rebuildBloomFilter() {
+        if (filter == null) {
+            return;
+        }
+        buildBloomFilter();
+    }
+    
+    private void buildBloomFilter() {
+        int capacity = Math.max(MIN_FILTER_CAPACITY, size() + size() / 4);
+        BloomFilter rebuilt = new BloomFilter(capacity, filterFalsePositiveRate);
+        java.util.PrimitiveIterator.OfInt keys = rangeIterator(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        while (keys.hasNext()) {
+            rebuilt.add(keys.nextInt());
+        }
+        
+        filter = rebuilt;
+        filterCapacity = capacity;
+        filterKeys = size();
+        filterStaleKeys = 0;
+        filterRebuilds++;
+    }
+    
+    /**
+     * Helper: true if the Bloom filter proves data is absent
+     */
+    private boolean filteredOut(int data) {
+        if (filter == null) {
+            return false;
+        }
+        filterQueries++;
+        if (filter.mightContain(data)) {
+            return false;
+        }
+        filterRejections++;
+        return true;
+    }
+    
+    /**
+     * Helper: a lookup passed the filter but missed in the tree
+     */
+    private void recordFilterMiss() {
+        if (filter != null) {
+            filterFalsePositives++;
+        }
+    }
+    
+    /**
+     * Summary of how well the Bloom filter is working
+     * - rejected: lookups answered by the filter alone
+     * - false positives: absent keys the filter let through (observed rate
+     *   is false positives / all absent keys looked up)
+     */
+    public String bloomFilterReport() {
+        if (filter == null) {
+            return "Bloom filter: disabled";
+        }
+        long absent = filterRejections + filterFalsePositives;
+        return String.format("Bloom filter: %,d lookups, %,d rejected (%.1f%%), %,d false positives "
+                + "(observed rate %.4f, target %.4f), %,d bits, %d hashes, %d rebuilds",
+                filterQueries, filterRejections, filterQueries == 0 ? 0.0 : 100.0 * filterRejections / filterQueries,
+                filterFalsePositives, absent == 0 ? 0.0 : (double) filterFalsePositives / absent,
+                filterFalsePositiveRate, filter.getBitCount(), filter.getHashCount(), filterRebuilds);
+    }
+    
     /**
      * SEARCH 1: Binary Search (Recursive)
      * Efficiently searches for a value using BST property
@@ -57,239 +552,1046 @@ public class TreeSearch {
      * @return true if found, false otherwise
      */
     public boolean binarySearchRecursive(int data) {
-        return searchRecursive(root, data);
+        if (metrics == null) {
+            return recursiveLookup(data);
+        }
+        long start = metrics.begin();
+        boolean found = recursiveLookup(data);
+        record(TreeMetrics.Operation.LOOKUP, data, found, start);
+        return found;
     }
     
-    private boolean searchRecursive(TreeNode node, int data) {
+    private boolean recursiveLookup(int data) {
+        if (filteredOut(data)) {
+            countDescent(0, 0);
+            return false;
+        }
+        boolean found = searchRecursive(root, data, 0);
+        if (!found) {
+            recordFilterMiss();
+        }
+        return found;
+    }
+    
+    /**
+     * depth counts the nodes above node (for metrics and self-adjusting mode)
+     */
+    private boolean searchRecursive(TreeNode node, int data, int depth) {
         // Base case: node is null
         if (node == null) {
+            endDescent(data, depth, false);
             return false;
         }
         
         // Found the value
         if (node.data == data) {
-            System.out.println("Found: " + data);
+            if (!quiet) {
+                System.out.println("Found: " + data);
+            }
+            endDescent(data, depth + 1, true);
             return true;
         }
         
         // Search in appropriate subtree
         if (data < node.data) {
-            return searchRecursive(node.left, data);
+            return searchRecursive(node.left, data, depth + 1);
         } else {
-            return searchRecursive(node.right, data);
+            return searchRecursive(node.right, data, depth + 1);
+        }
+    }
+    
+    /**
+     * SEARCH 2: Binary Search (Iterative)
+     * Non-recursive version for better space efficiency
+     * 
+     * Algorithm:
+     * 1. Start at root
+     * 2. While node is not null:
+     *    - If value equals node, return true
+     *    - If value < node.data, move to left child
+     *    - If value > node.data, move to right child
+     * 3. Return false if not found
+     * 
+     * Time Complexity: O(log n) average, O(n) worst case
+     * Space Complexity: O(1) - only uses a pointer
+     * 
+     * @param data The value to search
+     * @return true if found, false otherwise
+     */
+    public boolean binarySearchIterative(int data) {
+        if (metrics == null) {
+            return iterativeLookup(data);
+        }
+        long start = metrics.begin();
+        boolean found = iterativeLookup(data);
+        record(TreeMetrics.Operation.LOOKUP, data, found, start);
+        return found;
+    }
+    
+    private boolean iterativeLookup(int data) {
+        if (filteredOut(data)) {
+            countDescent(0, 0);
+            if (!quiet) {
+                System.out.println("Not found: " + data);
+            }
+            return false;
+        }
+        
+        TreeNode current = root;
+        int depth = 0;
+        
+        while (current != null) {
+            depth++;
+            if (current.data == data) {
+                if (!quiet) {
+                    System.out.println("Found: " + data);
+                }
+                endDescent(data, depth, true);
+                return true;
+            } else if (data < current.data) {
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+        
+        endDescent(data, depth, false);
+        recordFilterMiss();
+        if (!quiet) {
+            System.out.println("Not found: " + data);
+        }
+        return false;
+    }
+    
+    /**
+     * Check if a value exists (iterative search without console output)
+     * Time Complexity: O(h)
+     */
+    public boolean contains(int data) {
+        if (metrics == null) {
+            return lookup(data);
+        }
+        long start = metrics.begin();
+        boolean found = lookup(data);
+        record(TreeMetrics.Operation.LOOKUP, data, found, start);
+        return found;
+    }
+    
+    private boolean lookup(int data) {
+        if (filteredOut(data)) {
+            countDescent(0, 0);
+            return false;
+        }
+        
+        TreeNode current = root;
+        int depth = 0;
+        while (current != null) {
+            depth++;
+            if (current.data == data) {
+                endDescent(data, depth, true);
+                return true;
+            }
+            current = data < current.data ? current.left : current.right;
+        }
+        endDescent(data, depth, false);
+        recordFilterMiss();
+        return false;
+    }
+    
+    // Descents advanced together by containsAll
+    private static final int BATCH_LANES = 8;
+    
+    /**
+     * SEARCH 2b: Batched Lookup
+     * Looks up many keys at once; found[i] tells whether keys[i] is present
+     * 
+     * Algorithm:
+     * 1. Sort the probes (remembering their positions), so neighbouring
+     *    probes share most of their root-to-leaf path and those nodes stay
+     *    in cache
+     * 2. Take the sorted probes BATCH_LANES at a time and advance all of
+     *    their descents one level per round. The lanes' node loads do not
+     *    depend on each other, so the CPU can have several cache misses in
+     *    flight instead of waiting for each one in turn
+     * 
+     * Time Complexity: O(m log m + m h) for m probes
+     * Space Complexity: O(m)
+     * 
+     * @param keys Values to look up (any order, duplicates allowed)
+     * @return Array where found[i] is true if keys[i] is in the tree
+     */
+    public boolean[] containsAll(int[] keys) {
+        boolean[] found = new boolean[keys.length];
+        
+        // Key in the high half, original position in the low half; keys
+        // rejected by the Bloom filter (if any) are left out
+        long[] order = new long[keys.length];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (!filteredOut(keys[i])) {
+                order[n++] = ((long) keys[i] << 32) | i;
+            }
+        }
+        java.util.Arrays.sort(order, 0, n);
+        int hits = 0;
+        
+        TreeNode[] lanes = new TreeNode[BATCH_LANES];
+        int[] targets = new int[BATCH_LANES];
+        
+        for (int base = 0; base < n; base += BATCH_LANES) {
+            int width = Math.min(BATCH_LANES, n - base);
+            for (int lane = 0; lane < width; lane++) {
+                lanes[lane] = root;
+                targets[lane] = (int) (order[base + lane] >> 32);
+            }
+            
+            boolean active = true;
+            while (active) {
+                active = false;
+                for (int lane = 0; lane < width; lane++) {
+                    TreeNode current = lanes[lane];
+                    if (current == null) {
+                        continue;
+                    }
+                    int target = targets[lane];
+                    if (current.data == target) {
+                        found[(int) order[base + lane]] = true;
+                        lanes[lane] = null;
+                        hits++;
+                    } else {
+                        current = target < current.data ? current.left : current.right;
+                        lanes[lane] = current;
+                        active |= current != null;
+                    }
+                }
+            }
+        }
+        
+        if (filter != null) {
+            filterFalsePositives += n - hits;
+        }
+        return found;
+    }
+    
+    /**
+     * SEARCH 2c: Finger Search
+     * Returns a cursor for runs of lookups that are close to each other,
+     * e.g. keys arriving in nearly sorted order
+     * 
+     * Time Complexity: O(1) to create; see Cursor.search
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+    
+    /**
+     * Finger: remembers the path to the node its last search ended at and
+     * starts the next search from there instead of from the root
+     * 
+     * Algorithm:
+     * 1. Every node on the remembered path covers an open key interval
+     *    (low, high) set by its ancestors; the root covers everything
+     * 2. Climb the path until reaching a node whose interval contains the
+     *    new key - the lowest common ancestor of the old and new position
+     * 3. Descend from there as a normal search, extending the path
+     * 
+     * Nearby keys share most of their path, so a run of lookups d keys
+     * apart climbs and descends only the subtree spanning both keys:
+     * O(log d) when self-balancing, except when the two keys sit on either
+     * side of a high split point (up to O(log n), but that happens rarely
+     * over a sorted run: O(1) amortized per step over a full scan).
+     * 
+     * The cursor does not go through the Bloom filter or metrics. Any
+     * insert, delete or self-adjusting rotation makes it start over from
+     * the root on its next search, so it stays correct after changes.
+     * Not thread-safe.
+     */
+    public final class Cursor {
+        private TreeNode[] path = new TreeNode[0];
+        private long[] low = new long[0];  // Exclusive bounds of path[i]'s keys,
+        private long[] high = new long[0]; // widened to long for MIN/MAX_VALUE
+        private int top = -1;              // Index of the current node, -1 = none;
+                                           // entries above it are stale until reused
+        private int expectedModCount;
+        private long nodesVisited;
+        
+        private Cursor() {
+        }
+        
+        /**
+         * Search for a value starting from the last position, and move
+         * the cursor to it (or to the last node on its search path)
+         * 
+         * Time Complexity: O(log d) typical for keys d ranks apart, O(h) worst case
+         * Space Complexity: O(h) for the remembered path
+         * 
+         * @param data The value to search for
+         * @return true if found, false otherwise
+         */
+        public boolean search(int data) {
+            if (expectedModCount != modCount) {
+                reset();
+            }
+            if (top < 0) {
+                if (root == null) {
+                    return false;
+                }
+                top = 0;
+                if (path.length == 0) {
+                    grow();
+                }
+                path[0] = root;
+                low[0] = Integer.MIN_VALUE - 1L;
+                high[0] = Integer.MAX_VALUE + 1L;
+            }
+            
+            // Climb to the lowest remembered node whose interval holds data
+            int t = top;
+            while (t > 0 && (data <= low[t] || data >= high[t])) {
+                t--;
+            }
+            
+            // Descend from there, extending the path
+            TreeNode current = path[t];
+            int visited = 1;
+            boolean found;
+            while (true) {
+                if (current.data == data) {
+                    found = true;
+                    break;
+                }
+                TreeNode next = data < current.data ? current.left : current.right;
+                if (next == null) {
+                    found = false;
+                    break;
+                }
+                if (++t == path.length) {
+                    grow();
+                }
+                path[t] = next;
+                low[t] = data < current.data ? low[t - 1] : current.data;
+                high[t] = data < current.data ? current.data : high[t - 1];
+                current = next;
+                visited++;
+            }
+            top = t;
+            nodesVisited += visited;
+            return found;
+        }
+        
+        /**
+         * Value at the cursor's position: the last value found, or the
+         * last node visited by an unsuccessful search
+         * 
+         * @throws java.util.NoSuchElementException if no search has been made
+         *         since the cursor was created or the tree changed
+         */
+        public int current() {
+            if (top < 0 || expectedModCount != modCount) {
+                throw new java.util.NoSuchElementException("Cursor is not positioned");
+            }
+            return path[top].data;
+        }
+        
+        /**
+         * Forget the position, so the next search starts from the root
+         */
+        public void reset() {
+            java.util.Arrays.fill(path, null);
+            top = -1;
+            expectedModCount = modCount;
+        }
+        
+        /**
+         * Nodes visited by this cursor's searches (for comparing with the
+         * depth of a search from the root)
+         */
+        public long getNodesVisited() {
+            return nodesVisited;
+        }
+        
+        private void grow() {
+            int capacity = Math.max(16, 2 * path.length);
+            path = java.util.Arrays.copyOf(path, capacity);
+            low = java.util.Arrays.copyOf(low, capacity);
+            high = java.util.Arrays.copyOf(high, capacity);
+        }
+    }
+    
+    /**
+     * SEARCH 3: Find Minimum Value
+     * Finds the smallest element in the tree
+     * 
+     * Algorithm:
+     * - Keep traversing to the left until reaching a node with no left child
+     * 
+     * Time Complexity: O(log n) average, O(n) worst case (unbalanced)
+     * 
+     * @return Minimum value in tree, -1 if empty
+     */
+    public int findMinimum() {
+        if (root == null) {
+            if (!quiet) {
+                System.out.println("Tree is empty");
+            }
+            return -1;
+        }
+        
+        TreeNode current = root;
+        while (current.left != null) {
+            current = current.left;
+        }
+        
+        if (!quiet) {
+            System.out.println("Minimum value: " + current.data);
+        }
+        return current.data;
+    }
+    
+    /**
+     * SEARCH 4: Find Maximum Value
+     * Finds the largest element in the tree
+     * 
+     * Algorithm:
+     * - Keep traversing to the right until reaching a node with no right child
+     * 
+     * Time Complexity: O(log n) average, O(n) worst case (unbalanced)
+     * 
+     * @return Maximum value in tree, -1 if empty
+     */
+    public int findMaximum() {
+        if (root == null) {
+            if (!quiet) {
+                System.out.println("Tree is empty");
+            }
+            return -1;
+        }
+        
+        TreeNode current = root;
+        while (current.right != null) {
+            current = current.right;
+        }
+        
+        if (!quiet) {
+            System.out.println("Maximum value: " + current.data);
+        }
+        return current.data;
+    }
+    
+    /**
+     * SEARCH 5: Range Search
+     * Finds all values within a given range [min, max]
+     * 
+     * Algorithm:
+     * 1. Traverse tree maintaining range bounds
+     * 2. If node value is in range, include it
+     * 3. Recursively search left if node.data > min
+     * 4. Recursively search right if node.data < max
+     * 
+     * Time Complexity: O(k + log n) where k is number of results
+     * Space Complexity: O(k) for storing results
+     * 
+     * @param min Minimum value of range (inclusive)
+     * @param max Maximum value of range (inclusive)
+     * @return List of values in range
+     */
+    public java.util.List<Integer> rangeSearch(int min, int max) {
+        java.util.List<Integer> result = new java.util.ArrayList<>();
+        rangeSearchHelper(root, min, max, result);
+        return result;
+    }
+    
+    private void rangeSearchHelper(TreeNode node, int min, int max, java.util.List<Integer> result) {
+        if (node == null) {
+            return;
+        }
+        
+        // If node is in range, include it
+        if (node.data >= min && node.data <= max) {
+            result.add(node.data);
+        }
+        
+        // Recursively search left subtree if needed
+        if (node.data > min) {
+            rangeSearchHelper(node.left, min, max, result);
+        }
+        
+        // Recursively search right subtree if needed
+        if (node.data < max) {
+            rangeSearchHelper(node.right, min, max, result);
+        }
+    }
+    
+    /**
+     * SEARCH 5b: Lazy Range Iterator
+     * Walks [min, max] in ascending order on demand instead of collecting
+     * a List<Integer>, so values are never boxed and the caller can stop
+     * (or page) at any point
+     * 
+     * Algorithm:
+     * 1. Push the path to the first value >= min (only nodes >= min)
+     * 2. next() pops a node, then pushes the left spine of its right subtree
+     * 3. Stop once the node on top of the stack is > max
+     * 
+     * The iterator is fail-fast: once the tree changes (an insert, a
+     * delete or a self-adjusting splay), nextInt() throws
+     * ConcurrentModificationException.
+     * 
+     * Time Complexity: O(h) to start, O(1) amortized per value
+     * Space Complexity: O(h) - one stack slot per level, never O(k)
+     * 
+     * @param min Minimum value of range (inclusive)
+     * @param max Maximum value of range (inclusive)
+     * @return Iterator over the values in range, ascending
+     */
+    public java.util.PrimitiveIterator.OfInt rangeIterator(int min, int max) {
+        return new RangeIterator(this, root, min, max, false);
+    }
+    
+    /**
+     * Same as rangeIterator, but walks [min, max] from max down to min
+     */
+    public java.util.PrimitiveIterator.OfInt descendingRangeIterator(int min, int max) {
+        return new RangeIterator(this, root, min, max, true);
+    }
+    
+    /**
+     * Stream view of rangeIterator, e.g. rangeStream(a, b).limit(100).toArray()
+     * The stream is SIZED (via countInRange), SORTED and DISTINCT and is
+     * only walked as far as the terminal operation needs, and fails with
+     * ConcurrentModificationException if the tree changes meanwhile
+     */
+    public java.util.stream.IntStream rangeStream(int min, int max) {
+        int characteristics = java.util.Spliterator.ORDERED | java.util.Spliterator.SORTED
+                | java.util.Spliterator.DISTINCT | java.util.Spliterator.NONNULL;
+        return java.util.stream.StreamSupport.intStream(java.util.Spliterators.spliterator(
+                rangeIterator(min, max), countInRange(min, max), characteristics), false);
+    }
+    
+    /**
+     * Freeze the current contents into a BlockTree: sorted leaf blocks of
+     * blockSize ints under an Eytzinger index, searched without branches
+     * Not affected by later changes to this tree
+     * 
+     * Time Complexity: O(n)
+     * 
+     * @param blockSize Keys per leaf block (16-64 works best)
+     * @return Read-only snapshot with the same key set
+     */
+    public BlockTree toBlockTree(int blockSize) {
+        return new BlockTree(rangeStream(Integer.MIN_VALUE, Integer.MAX_VALUE).toArray(), blockSize);
+    }
+    
+    // Subtrees at most this big are walked sequentially by parallelRangeSearch
+    private static final int PARALLEL_CUTOFF = 16_384;
+    
+    /**
+     * SEARCH 5c: Parallel Range Search
+     * Collects [min, max] in ascending order using fork-join tasks
+     * 
+     * Algorithm:
+     * 1. countInRange sizes the result exactly, so nothing is concatenated
+     *    or copied afterwards
+     * 2. A task skips down to the first node inside the range. If its
+     *    subtree is small (PARALLEL_CUTOFF) it is walked sequentially;
+     *    otherwise the node's slot is result[offset + values in range in
+     *    its left subtree], and the left and right subtrees are forked as
+     *    two tasks writing disjoint slices on either side of it
+     * 
+     * The tree must not be modified during the call.
+     * 
+     * Time Complexity: O(k / p + h^2) with p workers (each split costs O(h))
+     * Space Complexity: O(k) for the result
+     * 
+     * @param min Minimum value of range (inclusive)
+     * @param max Maximum value of range (inclusive)
+     * @param pool Pool to run the tasks in
+     * @return Values in range, ascending
+     */
+    public int[] parallelRangeSearch(int min, int max, java.util.concurrent.ForkJoinPool pool) {
+        int[] result = new int[countInRange(min, max)];
+        if (result.length > 0) {
+            pool.invoke(new RangeTask(root, min, max, result, 0));
+        }
+        return result;
+    }
+    
+    /**
+     * parallelRangeSearch in the common fork-join pool
+     */
+    public int[] parallelRangeSearch(int min, int max) {
+        return parallelRangeSearch(min, max, java.util.concurrent.ForkJoinPool.commonPool());
+    }
+    
+    private static final class RangeTask extends java.util.concurrent.RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final TreeNode node;
+        private final int min;
+        private final int max;
+        private final int[] result;
+        private final int offset;
+        
+        RangeTask(TreeNode node, int min, int max, int[] result, int offset) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+            this.result = result;
+            this.offset = offset;
+        }
+        
+        @Override
+        protected void compute() {
+            // Skip nodes outside the range; only one side can hold results
+            TreeNode current = node;
+            while (current != null && (current.data < min || current.data > max)) {
+                current = current.data < min ? current.right : current.left;
+            }
+            if (current == null) {
+                return;
+            }
+            
+            if (current.size <= PARALLEL_CUTOFF) {
+                // The caller blocks in invoke(), so the tree cannot change
+                RangeIterator values = new RangeIterator(null, current, min, max, false);
+                for (int i = offset; values.hasNext(); i++) {
+                    result[i] = values.nextInt();
+                }
+                return;
+            }
+            
+            // Everything in the left subtree is <= max, so only min clips it
+            int leftCount = size(current.left) - countBelow(current.left, min);
+            result[offset + leftCount] = current.data;
+            invokeAll(new RangeTask(current.left, min, max, result, offset),
+                      new RangeTask(current.right, min, max, result, offset + leftCount + 1));
+        }
+        
+        /**
+         * Values below key in a subtree
+         */
+        private static int countBelow(TreeNode node, int key) {
+            int count = 0;
+            while (node != null) {
+                if (key <= node.data) {
+                    node = node.left;
+                } else {
+                    count += size(node.left) + 1;
+                    node = node.right;
+                }
+            }
+            return count;
+        }
+    }
+    
+    /**
+     * Stack-based in-order walk over [min, max]; descending mode is the
+     * mirror image (start at the last value <= max, step to the left)
+     * With an owner, nextInt() checks its modCount like Cursor does
+     */
+    private static final class RangeIterator implements java.util.PrimitiveIterator.OfInt {
+        private final TreeSearch owner; // null when nothing can change the tree
+        private final int expectedModCount;
+        private final TreeNode[] stack;
+        private final int min;
+        private final int max;
+        private final boolean descending;
+        private int top;
+        
+        RangeIterator(TreeSearch owner, TreeNode root, int min, int max, boolean descending) {
+            this.owner = owner;
+            this.expectedModCount = owner == null ? 0 : owner.modCount;
+            this.stack = new TreeNode[height(root)];
+            this.min = min;
+            this.max = max;
+            this.descending = descending;
+            this.top = 0;
+            
+            TreeNode current = root;
+            while (current != null) {
+                if (descending ? current.data <= max : current.data >= min) {
+                    stack[top++] = current;
+                    current = descending ? current.right : current.left;
+                } else {
+                    current = descending ? current.left : current.right;
+                }
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return top > 0 && (descending ? stack[top - 1].data >= min : stack[top - 1].data <= max);
+        }
+        
+        @Override
+        public int nextInt() {
+            if (owner != null && owner.modCount != expectedModCount) {
+                throw new java.util.ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new java.util.NoSuchElementException();
+            }
+            TreeNode node = stack[--top];
+            stack[top] = null;
+            
+            // The next subtree is entirely beyond node.data, so within the
+            // bound the constructor checked
+            TreeNode current = descending ? node.left : node.right;
+            while (current != null) {
+                stack[top++] = current;
+                current = descending ? current.right : current.left;
+            }
+            return node.data;
         }
     }
     
     /**
-     * SEARCH 2: Binary Search (Iterative)
-     * Non-recursive version for better space efficiency
+     * SEARCH 6: Count Occurrences in Range
+     * Counts how many values fall within a range without visiting them
      * 
      * Algorithm:
-     * 1. Start at root
-     * 2. While node is not null:
-     *    - If value equals node, return true
-     *    - If value < node.data, move to left child
-     *    - If value > node.data, move to right child
-     * 3. Return false if not found
+     * - count = (values <= max) - (values < min), each found with one
+     *   descent that adds up the sizes of the subtrees it passes on the left
      * 
-     * Time Complexity: O(log n) average, O(n) worst case
-     * Space Complexity: O(1) - only uses a pointer
+     * Time Complexity: O(h) - O(log n) when self-balancing, independent of k
+     * Space Complexity: O(1)
      * 
-     * @param data The value to search
-     * @return true if found, false otherwise
+     * @param min Minimum value
+     * @param max Maximum value
+     * @return Count of values in range
      */
-    public boolean binarySearchIterative(int data) {
+    public int countInRange(int min, int max) {
+        if (min > max) {
+            return 0;
+        }
+        return countBelow(max, true) - countBelow(min, false);
+    }
+    
+    /**
+     * Helper: number of values < key (or <= key when inclusive)
+     */
+    private int countBelow(int key, boolean inclusive) {
+        int count = 0;
         TreeNode current = root;
         
         while (current != null) {
-            if (current.data == data) {
-                System.out.println("Found: " + data);
-                return true;
-            } else if (data < current.data) {
+            if (key < current.data || (key == current.data && !inclusive)) {
                 current = current.left;
             } else {
+                // current and its whole left subtree are below (or at) key
+                count += size(current.left) + 1;
                 current = current.right;
             }
         }
         
-        System.out.println("Not found: " + data);
-        return false;
+        return count;
     }
     
     /**
-     * SEARCH 3: Find Minimum Value
-     * Finds the smallest element in the tree
+     * SEARCH 6b: Range Aggregates
+     * Sum of the values in [min, max], from the subtree sums kept on every
+     * node (updated on insert, delete and rotations like the sizes)
      * 
      * Algorithm:
-     * - Keep traversing to the left until reaching a node with no left child
+     * - sum = (sum of values <= max) - (sum of values < min), each found
+     *   with one descent, exactly as in countInRange
      * 
-     * Time Complexity: O(log n) average, O(n) worst case (unbalanced)
+     * Time Complexity: O(h) - O(log n) when self-balancing
      * 
-     * @return Minimum value in tree, -1 if empty
+     * @param min Minimum value (inclusive)
+     * @param max Maximum value (inclusive)
+     * @return Sum of values in range (0 for an empty range)
      */
-    public int findMinimum() {
-        if (root == null) {
-            System.out.println("Tree is empty");
-            return -1;
+    public long rangeSum(int min, int max) {
+        if (min > max) {
+            return 0;
         }
-        
+        return sumBelow(max, true) - sumBelow(min, false);
+    }
+    
+    /**
+     * Helper: sum of values < key (or <= key when inclusive)
+     */
+    private long sumBelow(int key, boolean inclusive) {
+        long total = 0;
         TreeNode current = root;
-        while (current.left != null) {
-            current = current.left;
+        
+        while (current != null) {
+            if (key < current.data || (key == current.data && !inclusive)) {
+                current = current.left;
+            } else {
+                total += sum(current.left) + current.data;
+                current = current.right;
+            }
         }
         
-        System.out.println("Minimum value: " + current.data);
-        return current.data;
+        return total;
     }
     
     /**
-     * SEARCH 4: Find Maximum Value
-     * Finds the largest element in the tree
+     * Smallest value in [min, max] (the ceiling of min, if it is <= max)
+     * Time Complexity: O(h)
      * 
-     * Algorithm:
-     * - Keep traversing to the right until reaching a node with no right child
+     * @return The value, or empty if the range holds none
+     */
+    public java.util.OptionalInt rangeMin(int min, int max) {
+        java.util.OptionalInt ceiling = ceiling(min);
+        return ceiling.isPresent() && ceiling.getAsInt() <= max ? ceiling : java.util.OptionalInt.empty();
+    }
+    
+    /**
+     * Largest value in [min, max] (the floor of max, if it is >= min)
+     * Time Complexity: O(h)
+     */
+    public java.util.OptionalInt rangeMax(int min, int max) {
+        java.util.OptionalInt floor = floor(max);
+        return floor.isPresent() && floor.getAsInt() >= min ? floor : java.util.OptionalInt.empty();
+    }
+    
+    /**
+     * Mean of the values in [min, max]: rangeSum / countInRange
+     * Time Complexity: O(h)
      * 
-     * Time Complexity: O(log n) average, O(n) worst case (unbalanced)
+     * @return The mean, or empty if the range holds no values
+     */
+    public java.util.OptionalDouble rangeAvg(int min, int max) {
+        int count = countInRange(min, max);
+        return count == 0 ? java.util.OptionalDouble.empty()
+                : java.util.OptionalDouble.of((double) rangeSum(min, max) / count);
+    }
+    
+    /**
+     * SEARCH 8: Rank
+     * Position the value would have in sorted order
      * 
-     * @return Maximum value in tree, -1 if empty
+     * Time Complexity: O(h) - O(log n) when self-balancing
+     * 
+     * @param key The value to rank (need not be in the tree)
+     * @return Number of values strictly smaller than key
      */
-    public int findMaximum() {
-        if (root == null) {
-            System.out.println("Tree is empty");
-            return -1;
-        }
-        
-        TreeNode current = root;
-        while (current.right != null) {
-            current = current.right;
-        }
-        
-        System.out.println("Maximum value: " + current.data);
-        return current.data;
+    public int rank(int key) {
+        return countBelow(key, false);
     }
     
     /**
-     * SEARCH 5: Range Search
-     * Finds all values within a given range [min, max]
+     * SEARCH 9: Select
+     * Finds the k-th smallest value (0-based), so select(rank(x)) == x
+     * for any x in the tree
      * 
      * Algorithm:
-     * 1. Traverse tree maintaining range bounds
-     * 2. If node value is in range, include it
-     * 3. Recursively search left if node.data > min
-     * 4. Recursively search right if node.data < max
+     * - At each node, the left subtree holds the size(left) smallest values:
+     *   go left if k is below that, stop if k equals it, otherwise skip the
+     *   left subtree and the node and go right
      * 
-     * Time Complexity: O(k + log n) where k is number of results
-     * Space Complexity: O(k) for storing results
+     * Time Complexity: O(h) - O(log n) when self-balancing
      * 
-     * @param min Minimum value of range (inclusive)
-     * @param max Maximum value of range (inclusive)
-     * @return List of values in range
+     * @param k Index in sorted order, 0 <= k < size()
+     * @return The k-th smallest value
+     * @throws IndexOutOfBoundsException if k is out of range
      */
-    public java.util.List<Integer> rangeSearch(int min, int max) {
-        java.util.List<Integer> result = new java.util.ArrayList<>();
-        rangeSearchHelper(root, min, max, result);
-        return result;
-    }
-    
-    private void rangeSearchHelper(TreeNode node, int min, int max, java.util.List<Integer> result) {
-        if (node == null) {
-            return;
-        }
-        
-        // If node is in range, include it
-        if (node.data >= min && node.data <= max) {
-            result.add(node.data);
-        }
-        
-        // Recursively search left subtree if needed
-        if (node.data > min) {
-            rangeSearchHelper(node.left, min, max, result);
+    public int select(int k) {
+        if (k < 0 || k >= size()) {
+            throw new IndexOutOfBoundsException("Index " + k + " out of range for size " + size());
         }
         
-        // Recursively search right subtree if needed
-        if (node.data < max) {
-            rangeSearchHelper(node.right, min, max, result);
+        TreeNode current = root;
+        while (true) {
+            int leftSize = size(current.left);
+            if (k < leftSize) {
+                current = current.left;
+            } else if (k == leftSize) {
+                return current.data;
+            } else {
+                k -= leftSize + 1;
+                current = current.right;
+            }
         }
     }
     
     /**
-     * SEARCH 6: Count Occurrences in Range
-     * Counts how many values fall within a range
-     * 
-     * Time Complexity: O(k + log n) where k is number of results
-     * Space Complexity: O(log n) for recursion
-     * 
-     * @param min Minimum value
-     * @param max Maximum value
-     * @return Count of values in range
+     * Median (lower median for an even count)
+     * Time Complexity: O(h)
      */
-    public int countInRange(int min, int max) {
-        return countInRangeHelper(root, min, max);
+    public int median() {
+        return select((size() - 1) / 2);
     }
     
-    private int countInRangeHelper(TreeNode node, int min, int max) {
-        if (node == null) {
-            return 0;
-        }
-        
-        int count = 0;
-        
-        // Count this node if in range
-        if (node.data >= min && node.data <= max) {
-            count = 1;
-        }
-        
-        // Count in left subtree if needed
-        if (node.data > min) {
-            count += countInRangeHelper(node.left, min, max);
-        }
-        
-        // Count in right subtree if needed
-        if (node.data < max) {
-            count += countInRangeHelper(node.right, min, max);
+    /**
+     * Percentile by the nearest-rank method: the smallest value with at
+     * least p percent of the values at or below it
+     * Time Complexity: O(h)
+     * 
+     * @param p Percentile, 0 < p <= 100
+     */
+    public int percentile(double p) {
+        if (!(p > 0 && p <= 100)) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100]: " + p);
         }
-        
-        return count;
+        return select(Math.max(0, (int) Math.ceil(p / 100 * size()) - 1));
     }
     
     /**
      * SEARCH 7: Find Closest Value
      * Finds the value in tree closest to a target value
+     * Console wrapper around closest(); returns -1 for an empty tree, so
+     * prefer closest() where -1 can be a real value
      * 
      * Time Complexity: O(log n) average
-     * Space Complexity: O(log n) for recursion
+     * Space Complexity: O(1)
      * 
      * @param target The target value
      * @return The closest value in tree
      */
     public int findClosest(int target) {
-        if (root == null) {
-            System.out.println("Tree is empty");
+        java.util.OptionalInt closest = closest(target);
+        if (!closest.isPresent()) {
+            if (!quiet) {
+                System.out.println("Tree is empty");
+            }
             return -1;
         }
         
-        int[] closest = {root.data};
-        findClosestHelper(root, target, closest);
-        System.out.println("Closest value to " + target + ": " + closest[0]);
-        return closest[0];
+        if (!quiet) {
+            System.out.println("Closest value to " + target + ": " + closest.getAsInt());
+        }
+        return closest.getAsInt();
     }
     
-    private void findClosestHelper(TreeNode node, int target, int[] closest) {
-        if (node == null) {
-            return;
+    /**
+     * SEARCH 7b: Floor, Ceiling, Lower, Higher
+     * Nearest value on one side of a key, in a single descent
+     * 
+     * Algorithm (floor): at each node, if node.data <= key it is the best
+     * candidate so far and only the right subtree can hold a better one;
+     * otherwise go left. The others are the same with the comparison changed.
+     * 
+     * Time Complexity: O(h)
+     * 
+     * @return The value, or empty if there is none on that side
+     */
+    public java.util.OptionalInt floor(int key) {
+        return below(key, true);
+    }
+    
+    /**
+     * Smallest value >= key
+     */
+    public java.util.OptionalInt ceiling(int key) {
+        return above(key, true);
+    }
+    
+    /**
+     * Largest value < key
+     */
+    public java.util.OptionalInt lower(int key) {
+        return below(key, false);
+    }
+    
+    /**
+     * Smallest value > key
+     */
+    public java.util.OptionalInt higher(int key) {
+        return above(key, false);
+    }
+    
+    private java.util.OptionalInt below(int key, boolean inclusive) {
+        TreeNode best = null;
+        TreeNode current = root;
+        while (current != null) {
+            if (current.data < key || (inclusive && current.data == key)) {
+                best = current;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
         }
-        
-        // Update closest if current node is closer
-        if (Math.abs(node.data - target) < Math.abs(closest[0] - target)) {
-            closest[0] = node.data;
+        return best == null ? java.util.OptionalInt.empty() : java.util.OptionalInt.of(best.data);
+    }
+    
+    private java.util.OptionalInt above(int key, boolean inclusive) {
+        TreeNode best = null;
+        TreeNode current = root;
+        while (current != null) {
+            if (current.data > key || (inclusive && current.data == key)) {
+                best = current;
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+        return best == null ? java.util.OptionalInt.empty() : java.util.OptionalInt.of(best.data);
+    }
+    
+    /**
+     * Closest value to target: the nearer of floor and ceiling
+     * Ties go to the smaller value; distances are computed in long, so
+     * keys at opposite ends of the int range cannot overflow
+     * 
+     * Time Complexity: O(h)
+     * 
+     * @return The closest value, or empty if the tree is empty
+     */
+    public java.util.OptionalInt closest(int target) {
+        java.util.OptionalInt floor = floor(target);
+        java.util.OptionalInt ceiling = ceiling(target);
+        if (!floor.isPresent()) {
+            return ceiling;
+        }
+        if (!ceiling.isPresent()) {
+            return floor;
+        }
+        long below = (long) target - floor.getAsInt();
+        long above = (long) ceiling.getAsInt() - target;
+        return above < below ? ceiling : floor;
+    }
+    
+    /**
+     * SEARCH 7c: k Nearest Values
+     * Finds the k values closest to target, nearest first
+     * 
+     * Algorithm:
+     * 1. Open a descending iterator at floor(target) and an ascending one
+     *    at higher(target)
+     * 2. Repeatedly take whichever of the two next values is closer
+     *    (ties go to the smaller value), like merging two sorted lists
+     * 
+     * Time Complexity: O(h + k)
+     * Space Complexity: O(h + k)
+     * 
+     * @param target The target value
+     * @param k Number of values wanted
+     * @return Up to k values ordered by distance (fewer if the tree is
+     *         smaller; empty for an empty tree)
+     */
+    public int[] nearest(int target, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
         }
+        int[] result = new int[Math.min(k, size())];
+        java.util.PrimitiveIterator.OfInt down = descendingRangeIterator(Integer.MIN_VALUE, target);
+        java.util.PrimitiveIterator.OfInt up = target == Integer.MAX_VALUE
+                ? java.util.stream.IntStream.empty().iterator()
+                : rangeIterator(target + 1, Integer.MAX_VALUE);
+        
+        // Next candidate on each side (valid while the has* flag is set)
+        boolean hasBelow = down.hasNext();
+        boolean hasAbove = up.hasNext();
+        int below = hasBelow ? down.nextInt() : 0;
+        int above = hasAbove ? up.nextInt() : 0;
         
-        // Continue searching in appropriate direction
-        if (target < node.data) {
-            findClosestHelper(node.left, target, closest);
-        } else if (target > node.data) {
-            findClosestHelper(node.right, target, closest);
+        for (int i = 0; i < result.length; i++) {
+            if (hasBelow && (!hasAbove || (long) target - below <= (long) above - target)) {
+                result[i] = below;
+                hasBelow = down.hasNext();
+                below = hasBelow ? down.nextInt() : 0;
+            } else {
+                result[i] = above;
+                hasAbove = up.hasNext();
+                above = hasAbove ? up.nextInt() : 0;
+            }
         }
+        
+        return result;
     }
     
     /**
@@ -344,6 +1646,15 @@ public class TreeSearch {
         tree.binarySearchIterative(30);
         tree.binarySearchIterative(55);
         
+        // SEARCH 2b: Batched Lookup
+        System.out.println("containsAll([85, 12, 40, 55, 10]): "
+                + java.util.Arrays.toString(tree.containsAll(new int[] {85, 12, 40, 55, 10})));
+        
+        // SEARCH 2c: Finger Search
+        TreeSearch.Cursor cursor = tree.cursor();
+        System.out.println("cursor.search(35): " + cursor.search(35) + ", then 40: " + cursor.search(40)
+                + ", then 55: " + cursor.search(55) + " (cursor left at " + cursor.current() + ")");
+        
         // SEARCH 3: Find Minimum
         System.out.println("\n--- SEARCH 3: Find Minimum ---");
         tree.findMinimum();
@@ -357,21 +1668,249 @@ public class TreeSearch {
         java.util.List<Integer> rangeResults = tree.rangeSearch(20, 60);
         System.out.println("Values in range [20, 60]: " + rangeResults);
         
+        // SEARCH 5b: Lazy Range Iterator
+        System.out.print("First 3 values in [20, 60], streamed: ");
+        tree.rangeStream(20, 60).limit(3).forEach(value -> System.out.print(value + " "));
+        System.out.println();
+        
         // SEARCH 6: Count in Range
         System.out.println("\n--- SEARCH 6: Count in Range (30-70) ---");
         int count = tree.countInRange(30, 70);
         System.out.println("Count of values in range [30, 70]: " + count);
         
+        // SEARCH 6b: Range Aggregates
+        System.out.println("\n--- SEARCH 6b: Range Aggregates (30-70) ---");
+        System.out.println("Sum: " + tree.rangeSum(30, 70) + ", min: " + tree.rangeMin(30, 70)
+                + ", max: " + tree.rangeMax(30, 70) + ", avg: " + tree.rangeAvg(30, 70));
+        System.out.println("Empty range (86-99): sum " + tree.rangeSum(86, 99) + ", avg " + tree.rangeAvg(86, 99));
+        
         // SEARCH 7: Find Closest
         System.out.println("\n--- SEARCH 7: Find Closest Value ---");
         tree.findClosest(15);
         tree.findClosest(63);
         tree.findClosest(50);
         
+        // SEARCH 7b & 7c: Neighbour Queries
+        System.out.println("\n--- SEARCH 7b & 7c: Floor, Ceiling and k Nearest ---");
+        System.out.println("floor(63) = " + tree.floor(63) + ", ceiling(63) = " + tree.ceiling(63));
+        System.out.println("lower(60) = " + tree.lower(60) + ", higher(60) = " + tree.higher(60));
+        System.out.println("floor(5) = " + tree.floor(5) + ", higher(85) = " + tree.higher(85));
+        System.out.println("nearest(63, 4) = " + java.util.Arrays.toString(tree.nearest(63, 4)));
+        System.out.println("nearest(100, 3) = " + java.util.Arrays.toString(tree.nearest(100, 3)));
+        System.out.println("Empty tree: closest(7) = " + new TreeSearch().closest(7)
+                + ", nearest(7, 3) = " + java.util.Arrays.toString(new TreeSearch().nearest(7, 3)));
+        
+        // SEARCH 8 & 9: Rank and Select
+        System.out.println("\n--- SEARCH 8 & 9: Rank and Select ---");
+        System.out.println("Size: " + tree.size());
+        System.out.println("rank(40) = " + tree.rank(40) + ", rank(55) = " + tree.rank(55));
+        System.out.println("select(0) = " + tree.select(0) + ", select(5) = " + tree.select(5)
+                + ", select(12) = " + tree.select(12));
+        System.out.println("Median: " + tree.median() + ", 90th percentile: " + tree.percentile(90));
+        tree.delete(30);
+        tree.delete(85);
+        System.out.println("After deleting 30 and 85: count in [30, 70] = " + tree.countInRange(30, 70)
+                + ", median = " + tree.median());
+        
+        // Counting a wide range no longer visits every value in it
+        TreeSearch ids = new TreeSearch(true);
+        for (int id = 0; id < 1_000_000; id++) {
+            ids.insert(id);
+        }
+        long start = System.nanoTime();
+        int wide = ids.countInRange(100_000, 900_000);
+        long nanos = System.nanoTime() - start;
+        System.out.println("\nSelf-balancing tree of " + ids.size() + " sequential IDs: count in [100000, 900000] = "
+                + wide + " in " + nanos / 1000 + " us");
+        
+        // Batched lookups against one lookup per key
+        java.util.Random random = new java.util.Random(42);
+        TreeSearch big = new TreeSearch();
+        for (int i = 0; i < 1_000_000; i++) {
+            big.insert(random.nextInt());
+        }
+        int[] batch = new int[100_000];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = random.nextInt();
+        }
+        System.out.println("\nBatch of " + batch.length + " lookups on " + big.size() + " random keys:");
+        for (int round = 0; round < 3; round++) {
+            start = System.nanoTime();
+            int hits = 0;
+            for (int key : batch) {
+                if (big.contains(key)) hits++;
+            }
+            long loopNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            for (boolean hit : big.containsAll(batch)) {
+                if (hit) hits--;
+            }
+            long batchNanos = System.nanoTime() - start;
+            System.out.printf("Round %d: per-key %.1f ns/key, containsAll %.1f ns/key%s%n", round + 1,
+                    (double) loopNanos / batch.length, (double) batchNanos / batch.length,
+                    hits == 0 ? "" : " MISMATCH");
+        }
+        
+        // Bloom filter front for a miss-heavy workload (~70% misses)
+        int[] lookups = new int[1_000_000];
+        int[] present = big.rangeStream(Integer.MIN_VALUE, Integer.MAX_VALUE).toArray();
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = random.nextInt(10) < 3 ? present[random.nextInt(present.length)] : random.nextInt();
+        }
+        System.out.println("\n" + lookups.length + " lookups, ~70% misses:");
+        for (int round = 0; round < 2; round++) {
+            big.disableBloomFilter();
+            start = System.nanoTime();
+            int hits = 0;
+            for (int key : lookups) {
+                if (big.contains(key)) hits++;
+            }
+            long plainNanos = System.nanoTime() - start;
+            
+            big.enableBloomFilter(0.01);
+            start = System.nanoTime();
+            for (int key : lookups) {
+                if (big.contains(key)) hits--;
+            }
+            long filteredNanos = System.nanoTime() - start;
+            System.out.printf("Round %d: tree only %.1f ns/lookup, with Bloom filter %.1f ns/lookup%s%n",
+                    round + 1, (double) plainNanos / lookups.length, (double) filteredNanos / lookups.length,
+                    hits == 0 ? "" : " MISMATCH");
+        }
+        System.out.println(big.bloomFilterReport());
+        for (int i = 0; i < present.length / 2; i++) {
+            big.delete(present[i]);
+        }
+        System.out.println("After deleting half the keys: " + big.bloomFilterReport());
+        
+        // Sums past the int range stay exact
+        TreeSearch salaries = new TreeSearch(true);
+        for (int i = 0; i < 1000; i++) {
+            salaries.insert(2_000_000_000 + i);
+        }
+        System.out.println("\nrangeSum over 1000 values near 2^31: " + salaries.rangeSum(Integer.MIN_VALUE, Integer.MAX_VALUE)
+                + ", avg " + salaries.rangeAvg(Integer.MIN_VALUE, Integer.MAX_VALUE).getAsDouble());
+        
+        // Page through the same range with constant memory
+        java.util.PrimitiveIterator.OfInt page = ids.rangeIterator(100_000, 900_000);
+        long sum = 0;
+        int pages = 0;
+        while (page.hasNext()) {
+            for (int i = 0; i < 1000 && page.hasNext(); i++) {
+                sum += page.nextInt();
+            }
+            pages++;
+        }
+        System.out.println("Paged through it in " + pages + " pages of 1000, sum = " + sum);
+        System.out.println("Sum via rangeStream: " + ids.rangeStream(100_000, 900_000).asLongStream().sum());
+        
+        // Fork-join range search: speedup by worker count
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("\nParallel range search of [100000, 900000] (" + cores + " available processors):");
+        long sequentialNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            start = System.nanoTime();
+            int[] values = new int[ids.countInRange(100_000, 900_000)];
+            java.util.PrimitiveIterator.OfInt walk = ids.rangeIterator(100_000, 900_000);
+            for (int i = 0; walk.hasNext(); i++) {
+                values[i] = walk.nextInt();
+            }
+            sequentialNanos = Math.min(sequentialNanos, System.nanoTime() - start);
+        }
+        System.out.printf("Sequential:  %6.2f ms%n", sequentialNanos / 1e6);
+        for (int workers = 1; workers <= Math.max(2, cores); workers *= 2) {
+            java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(workers);
+            long best = Long.MAX_VALUE;
+            int[] values = null;
+            for (int round = 0; round < 5; round++) {
+                start = System.nanoTime();
+                values = ids.parallelRangeSearch(100_000, 900_000, pool);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            pool.shutdown();
+            System.out.printf("%2d worker(s): %6.2f ms, speedup %.2fx (%d values, first %d, last %d)%n",
+                    workers, best / 1e6, (double) sequentialNanos / best,
+                    values.length, values[0], values[values.length - 1]);
+        }
+        
+        // Self-adjusting lookups: 90% of the traffic goes to 1% of the keys
+        java.util.Random hotRandom = new java.util.Random(7);
+        int[] employees = new int[100_000];
+        for (int i = 0; i < employees.length; i++) {
+            employees[i] = hotRandom.nextInt();
+        }
+        int[] hotKeys = new int[employees.length / 100];
+        for (int i = 0; i < hotKeys.length; i++) {
+            hotKeys[i] = employees[hotRandom.nextInt(employees.length)]; // Not the early, shallow inserts
+        }
+        int[] hotTraffic = new int[500_000];
+        for (int i = 0; i < hotTraffic.length; i++) {
+            hotTraffic[i] = hotRandom.nextInt(10) < 9 ? hotKeys[hotRandom.nextInt(hotKeys.length)]
+                                                      : employees[hotRandom.nextInt(employees.length)];
+        }
+        System.out.println("\nHot-key lookups (90% of " + hotTraffic.length + " lookups on 1% of "
+                + employees.length + " keys):");
+        for (int mode = 0; mode < 3; mode++) {
+            TreeSearch staff = new TreeSearch(mode == 1);
+            staff.setQuiet(true);
+            for (int id : employees) {
+                staff.insert(id);
+            }
+            staff.setSelfAdjusting(mode == 2);
+            for (int id : hotTraffic) {
+                staff.binarySearchIterative(id); // Warm up (and let mode 2 adapt)
+            }
+            staff.enableMetrics();
+            start = System.nanoTime();
+            for (int id : hotTraffic) {
+                staff.binarySearchIterative(id);
+            }
+            long lookupNanos = System.nanoTime() - start;
+            System.out.printf("%-15s mean depth %4.1f, %.0f ns/lookup (with metrics)%n",
+                    new String[] {"Plain BST:", "AVL:", "Self-adjusting:"}[mode],
+                    staff.getMetrics().getMeanDepth(TreeMetrics.Operation.LOOKUP), (double) lookupNanos / hotTraffic.length);
+        }
+        
+        // Finger search: a run of nearby keys from a cursor vs from the root
+        int[] run = new int[200_000];
+        for (int i = 0; i < run.length; i++) {
+            run[i] = 300_000 + 3 * i;
+        }
+        long rootNanos = Long.MAX_VALUE;
+        long fingerNanos = Long.MAX_VALUE;
+        long fingerNodes = 0;
+        int hits = 0;
+        for (int round = 0; round < 5; round++) {
+            start = System.nanoTime();
+            for (int id : run) {
+                if (ids.contains(id)) hits++;
+            }
+            rootNanos = Math.min(rootNanos, System.nanoTime() - start);
+            
+            TreeSearch.Cursor finger = ids.cursor();
+            start = System.nanoTime();
+            for (int id : run) {
+                if (finger.search(id)) hits++;
+            }
+            fingerNanos = Math.min(fingerNanos, System.nanoTime() - start);
+            fingerNodes = finger.getNodesVisited();
+        }
+        System.out.println("\nFinger search over " + run.length + " ascending keys (best of 5, " + hits + " hits):");
+        System.out.printf("From root: %.1f ns/lookup, tree height %d%n", (double) rootNanos / run.length, height(ids.root));
+        System.out.printf("Cursor:    %.1f ns/lookup, %.1f nodes/lookup%n",
+                (double) fingerNanos / run.length, (double) fingerNodes / run.length);
+        
         System.out.println("\n--- Time Complexity Summary ---");
         System.out.println("Binary Search: O(log n) average, O(n) worst case");
+        System.out.println("Self-adjusting Lookup: hot keys near the root, splay O(depth)");
+        System.out.println("Finger Search (Cursor): O(log d) for keys d apart, O(1) amortized over a sorted run");
         System.out.println("Find Min/Max: O(log n) average");
-        System.out.println("Range Search: O(k + log n) where k is result count");
-        System.out.println("Find Closest: O(log n) average");
+        System.out.println("Range Search: O(k + log n) where k is result count (iterator: O(h) memory)");
+        System.out.println("Parallel Range Search: O(k / p + log^2 n) with p workers (self-balancing)");
+        System.out.println("Count in Range / Rank / Select: O(log n) with subtree sizes");
+        System.out.println("Range Sum / Min / Max / Avg: O(log n) with subtree sums");
+        System.out.println("Find Closest / Floor / Ceiling: O(log n) average");
+        System.out.println("k Nearest: O(log n + k)");
     }
 }
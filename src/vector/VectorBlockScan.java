@@ -0,0 +1,37 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+public class VectorBlockScan implements BlockTree.BlockScan {
+    
+    /*
+     * SIMD block scan for BlockTree: broadcast the target, compare a whole
+     * register of keys against it at once and count the lanes that are
+     * below it. With 256-bit vectors a 32 int block takes 4 compares; any
+     * keys left over (block size not a multiple of the vector length) go
+     * through the scalar loop.
+     * 
+     * Kept out of src/*.java because jdk.incubator.vector must be added
+     * explicitly at compile and run time (see the BlockTree class comment).
+     * BlockTree loads this class by name only when the module is present.
+     */
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    
+    /**
+     * Count the keys below data in keys[start, start + length)
+     * Time Complexity: O(length / V) for V lanes per vector
+     */
+    @Override
+    public int countBelow(int[] keys, int start, int length, int data) {
+        int below = 0;
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; i < bound; i += SPECIES.length()) {
+            below += IntVector.fromArray(SPECIES, keys, start + i).compare(VectorOperators.LT, data).trueCount();
+        }
+        for (; i < length; i++) {
+            below += keys[start + i] < data ? 1 : 0;
+        }
+        return below;
+    }
+}